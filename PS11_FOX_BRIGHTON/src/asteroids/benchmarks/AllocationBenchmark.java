@@ -0,0 +1,182 @@
+package asteroids.benchmarks;
+
+import static asteroids.game.Constants.*;
+import static asteroids.game.Controller.*;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Random;
+import asteroids.game.Controller;
+import asteroids.game.Participant;
+import asteroids.game.ParticipantState;
+import asteroids.participants.AlienBullet;
+import asteroids.participants.Asteroid;
+import asteroids.participants.Bullet;
+import asteroids.participants.Debris;
+
+/**
+ * Measures how many bytes are allocated on the heap per frame, first by moving every participant and then by a full
+ * frame of ParticipantState (moving, checking for collisions, and completing adds and removes), and then by a frame of
+ * headless games of both versions in which the player keeps firing, so that bullets, debris, and asteroids come and
+ * go. Firing should allocate nothing once the game has warmed up, and the program exits with status 1 if it does. This
+ * relies on the com.sun.management extension of ThreadMXBean, which HotSpot-based JVMs provide.
+ */
+public class AllocationBenchmark
+{
+    /** Number of asteroids in the game */
+    private static final int ASTEROIDS = 100;
+
+    /** Number of untimed frames that are simulated first, so that the JIT compiler has done its work */
+    private static final int WARMUP_FRAMES = 20_000;
+
+    /** Number of frames that are measured */
+    private static final int MEASURED_FRAMES = 10_000;
+
+    /** Number of frames, starting with the one in which something comes into play, that are counted as spawning it */
+    private static final int SPAWN_FRAMES = 3;
+
+    /**
+     * Runs the benchmark and prints the bytes allocated per frame, exiting with status 1 if firing allocates anything.
+     */
+    public static void main (String[] args)
+    {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        Random random = new Random(0);
+        ParticipantState pstate = new ParticipantState();
+        for (int i = 0; i < ASTEROIDS; i++)
+        {
+            pstate.addParticipant(new Asteroid(random.nextInt(4), random.nextInt(3), SIZE * random.nextDouble(),
+                    SIZE * random.nextDouble(), null));
+        }
+        for (int i = 0; i < WARMUP_FRAMES; i++)
+        {
+            pstate.moveParticipants();
+            moveAll(pstate);
+        }
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < MEASURED_FRAMES; i++)
+        {
+            moveAll(pstate);
+        }
+        long moveBytes = threads.getThreadAllocatedBytes(thread) - before;
+
+        before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < MEASURED_FRAMES; i++)
+        {
+            pstate.moveParticipants();
+        }
+        long frameBytes = threads.getThreadAllocatedBytes(thread) - before;
+
+        System.out.printf("%d asteroids%n", ASTEROIDS);
+        System.out.printf("move() of every participant: %10.1f bytes per frame%n",
+                (double) moveBytes / MEASURED_FRAMES);
+        System.out.printf("moveParticipants():          %10.1f bytes per frame%n",
+                (double) frameBytes / MEASURED_FRAMES);
+
+        long firingBytes = measureGame(threads, thread, 0, "Headless game, firing:");
+        firingBytes += measureGame(threads, thread, 1, "Enhanced game, firing:");
+        System.exit((firingBytes == 0) ? 0 : 1);
+    }
+
+    /**
+     * Plays a headless game of the given version in which the player keeps firing, and prints the bytes allocated per
+     * frame. Frames in which anything but bullets, debris, and asteroids comes into play (a ship, alien ship, power-up,
+     * force field, level, or game) are reported separately, since what they allocate goes with the spawn rather than
+     * with the firing. So are the frames after, up to SPAWN_FRAMES in all, in which what came into play is added and
+     * first placed. Returns the number of bytes that the rest of the frames allocated.
+     */
+    private static long measureGame (com.sun.management.ThreadMXBean threads, long thread, int version, String name)
+    {
+        Controller controller = Controller.createHeadless(version, 1);
+        controller.startGame();
+        for (int i = 0; i < WARMUP_FRAMES; i++)
+        {
+            playFrame(controller, i);
+        }
+
+        ArrayList<Participant> previous = new ArrayList<>();
+        ArrayList<Participant> present = new ArrayList<>();
+        findSpawned(controller, previous);
+        long firingBytes = 0;
+        long spawnBytes = 0;
+        int spawnFrames = 0;
+        int sinceSpawn = SPAWN_FRAMES;
+        for (int i = 0; i < MEASURED_FRAMES; i++)
+        {
+            int level = controller.getLevel();
+            long before = threads.getThreadAllocatedBytes(thread);
+            boolean restarted = playFrame(controller, i);
+            long bytes = threads.getThreadAllocatedBytes(thread) - before;
+
+            findSpawned(controller, present);
+            if (restarted || controller.getLevel() != level || !previous.containsAll(present))
+            {
+                sinceSpawn = 0;
+            }
+            if (sinceSpawn++ < SPAWN_FRAMES)
+            {
+                spawnBytes += bytes;
+                spawnFrames++;
+            }
+            else
+            {
+                firingBytes += bytes;
+            }
+            ArrayList<Participant> swap = previous;
+            previous = present;
+            present = swap;
+        }
+
+        System.out.printf("%-28s %10.1f bytes per frame%n", name,
+                (double) firingBytes / (MEASURED_FRAMES - spawnFrames));
+        System.out.printf("  %5d frames that spawn:     %10.1f bytes per frame%n", spawnFrames,
+                (spawnFrames == 0) ? 0.0 : (double) spawnBytes / spawnFrames);
+        return firingBytes;
+    }
+
+    /**
+     * Replaces the contents of spawned with the participants of the controller's game other than bullets, debris, and
+     * asteroids.
+     */
+    private static void findSpawned (Controller controller, ArrayList<Participant> spawned)
+    {
+        spawned.clear();
+        for (Participant p : controller)
+        {
+            if (!(p instanceof Bullet || p instanceof AlienBullet || p instanceof Debris || p instanceof Asteroid))
+            {
+                spawned.add(p);
+            }
+        }
+    }
+
+    /**
+     * Plays frame i of a headless game in which the player keeps firing and turning, starting a new game if the last
+     * one has ended. Returns true if it started a new game.
+     */
+    private static boolean playFrame (Controller controller, int i)
+    {
+        controller.setInput(INPUT_FIRE | (((i / 90) % 2 == 0) ? INPUT_LEFT : INPUT_RIGHT));
+        controller.tick();
+        if (controller.getLives() <= 0)
+        {
+            controller.startGame();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Moves every participant once.
+     */
+    private static void moveAll (ParticipantState pstate)
+    {
+        for (Participant p : pstate)
+        {
+            p.move();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package asteroids.benchmarks;
+
+import static asteroids.game.Controller.*;
+import asteroids.game.BatchSimulation;
+
+/**
+ * Plays the same batch of headless games on 1, 2, 4, ... threads, up to the number of processors, and reports the
+ * throughput of each and the speedup over one thread. The optional arguments are the number of games (default 200)
+ * and the most frames per game (default 5000).
+ */
+public class BatchBenchmark
+{
+    /**
+     * Runs the benchmark.
+     */
+    public static void main (String[] args)
+    {
+        int games = (args.length > 0) ? Integer.parseInt(args[0]) : 200;
+        int maxFrames = (args.length > 1) ? Integer.parseInt(args[1]) : 5000;
+
+        // The bot keeps firing and turning, and thrusts now and then
+        BatchSimulation simulation = new BatchSimulation(0, maxFrames, () -> (controller, frame) ->
+        {
+            int input = INPUT_FIRE | (((frame / 90) % 2 == 0) ? INPUT_LEFT : INPUT_RIGHT);
+            return (frame % 60 < 10) ? (input | INPUT_THRUST) : input;
+        });
+
+        // Warm up with a batch of other games
+        simulation.run(-games, games, 1);
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        double single = 0;
+        int threads = 1;
+        while (true)
+        {
+            BatchSimulation.Report report = simulation.run(1, games, threads);
+            if (threads == 1)
+            {
+                single = report.getFramesPerSecond();
+            }
+            System.out.printf("%s, speedup %.2f%n", report, report.getFramesPerSecond() / single);
+            if (threads == processors)
+            {
+                break;
+            }
+            threads = Math.min(2 * threads, processors);
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,84 @@
+package asteroids.benchmarks;
+
+import asteroids.game.ParticipantState;
+
+/**
+ * Measures how long a frame of ParticipantState takes when collisions are found by comparing every pair of
+ * participants and when they are found with the collision grid. The participants are a CollisionScene of small
+ * asteroids and bullets, so that, as in a real game, most pairs are far apart. Checks that both ways end up in the same
+ * state, and reports the number of participants from which on the grid wins.
+ */
+public class CollisionBenchmark
+{
+    /** Numbers of participants to measure */
+    private static final int[] COUNTS = { 2, 4, 8, 16, 32, 64, 128, 256, 512, 1024, 2048 };
+
+    /** Number of untimed frames that are simulated before each measurement */
+    private static final int WARMUP_FRAMES = 100;
+
+    /** Minimum number of nanoseconds spent on each measurement */
+    private static final long MEASUREMENT_NANOS = 500_000_000L;
+
+    /** Checksum of the state after the warmup frames of the most recent measurement */
+    private static long checksum;
+
+    /**
+     * Runs the benchmark and prints a table of microseconds per frame.
+     */
+    public static void main (String[] args)
+    {
+        System.out.printf("%12s %16s %16s%n", "participants", "all pairs (us)", "grid (us)");
+        int crossover = -1;
+        for (int n : COUNTS)
+        {
+            double allPairs = measure(n, Integer.MAX_VALUE);
+            long allPairsChecksum = checksum;
+            double grid = measure(n, 0);
+            System.out.printf("%12d %16.1f %16.1f%n", n, allPairs, grid);
+            if (checksum != allPairsChecksum)
+            {
+                System.out.println("The grid ended in a different state than comparing every pair");
+            }
+            if (grid >= allPairs)
+            {
+                crossover = -1;
+            }
+            else if (crossover < 0)
+            {
+                crossover = n;
+            }
+        }
+        System.out.println("The grid is faster starting at " + crossover + " participants");
+    }
+
+    /**
+     * Returns the average number of microseconds needed to simulate one frame of a CollisionScene of n participants,
+     * using the given grid threshold. The warmup frames are the same for every measurement of n participants, so the
+     * checksums after them can be compared.
+     */
+    private static double measure (int n, int gridThreshold)
+    {
+        ParticipantState pstate = new ParticipantState();
+        pstate.setGridThreshold(gridThreshold);
+        pstate.setParallelThreshold(Integer.MAX_VALUE);
+        new CollisionScene(pstate, n, n);
+
+        for (int i = 0; i < WARMUP_FRAMES; i++)
+        {
+            pstate.moveParticipants();
+        }
+        checksum = pstate.checksum();
+
+        int frames = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do
+        {
+            pstate.moveParticipants();
+            frames++;
+            elapsed = System.nanoTime() - start;
+        }
+        while (elapsed < MEASUREMENT_NANOS);
+        return elapsed / 1000.0 / frames;
+    }
+}
@@ -0,0 +1,125 @@
+package asteroids.benchmarks;
+
+import static asteroids.game.Constants.*;
+import java.util.Random;
+import asteroids.game.Participant;
+import asteroids.game.ParticipantState;
+import asteroids.participants.Asteroid;
+import asteroids.participants.Bullet;
+
+/**
+ * Fills a ParticipantState for the benchmarks that measure finding collisions: small asteroids drifting about, with
+ * bullets flying among them, one for every SHOT_SPACING participants. Asteroids don't act on each other, so without
+ * the bullets there would be no pairs to test. No controller is needed: an asteroid shrugs off being hit, and a bullet
+ * that hits one or runs out of time is replaced by a new one fired from a random place, so the scene keeps the same
+ * number of each. Everything random is drawn from the scene's own Random in the order the game deals with it, so two
+ * scenes made with the same seed stay the same frame after frame, and any change in the order in which collisions are
+ * dealt with shows up in ParticipantState.checksum().
+ */
+class CollisionScene
+{
+    /** Number of participants per bullet */
+    static final int SHOT_SPACING = 8;
+
+    /** The state that the participants are added to */
+    private final ParticipantState pstate;
+
+    /** Where the positions, velocities, and rotations come from */
+    private final Random random;
+
+    /**
+     * Adds n participants to pstate, with the randomness taken from a Random with the given seed.
+     */
+    CollisionScene (ParticipantState pstate, int n, long seed)
+    {
+        this.pstate = pstate;
+        this.random = new Random(seed);
+        for (int i = 0; i < n; i++)
+        {
+            if (i % SHOT_SPACING == 0)
+            {
+                addShot();
+            }
+            else
+            {
+                addRock();
+            }
+        }
+    }
+
+    /**
+     * Adds a participant of the same kind as p, which has been or is about to be expired.
+     */
+    void replace (Participant p)
+    {
+        if (p instanceof Shot)
+        {
+            addShot();
+        }
+        else
+        {
+            addRock();
+        }
+    }
+
+    /**
+     * Adds a small asteroid at a random place, moving in a random direction.
+     */
+    private void addRock ()
+    {
+        Rock rock = new Rock(random.nextInt(4), SIZE * random.nextDouble(), SIZE * random.nextDouble());
+        rock.setVelocity(random.nextDouble() * 3, random.nextDouble() * 2 * Math.PI);
+        rock.setRotation(random.nextDouble() * 2 * Math.PI);
+        pstate.addParticipant(rock);
+    }
+
+    /**
+     * Adds a bullet fired from a random place in a random direction.
+     */
+    private void addShot ()
+    {
+        pstate.addParticipant(new Shot((int) (SIZE * random.nextDouble()), (int) (SIZE * random.nextDouble()),
+                random.nextDouble() * 2 * Math.PI));
+    }
+
+    /**
+     * A small asteroid that is never destroyed.
+     */
+    private static class Rock extends Asteroid
+    {
+        Rock (int variety, double x, double y)
+        {
+            super(variety, 0, x, y, null);
+        }
+
+        @Override
+        public void collidedWith (Participant p)
+        {
+        }
+    }
+
+    /**
+     * A bullet that is replaced by a new one when it expires.
+     */
+    private class Shot extends Bullet
+    {
+        Shot (int x, int y, double direction)
+        {
+            super(x, y, direction, null);
+        }
+
+        @Override
+        public void countdownComplete (Object payload)
+        {
+            Participant.expire(this);
+            addShot();
+        }
+
+        @Override
+        public void collidedWith (Participant p)
+        {
+            Participant.expire(this);
+            addShot();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package asteroids.benchmarks;
+
+import static asteroids.game.Controller.*;
+import asteroids.game.Controller;
+
+/**
+ * Plays headless games of Asteroids as fast as possible and reports how many frames per second were simulated. The
+ * player keeps firing and turning, and thrusts now and then. A new game is started whenever one ends. The optional
+ * arguments are the number of frames (default 100000) and the version (0 for classic, 1 for enhanced).
+ */
+public class HeadlessBenchmark
+{
+    /**
+     * Runs the benchmark.
+     */
+    public static void main (String[] args)
+    {
+        int frames = (args.length > 0) ? Integer.parseInt(args[0]) : 100_000;
+        int version = (args.length > 1) ? Integer.parseInt(args[1]) : 0;
+
+        Controller controller = Controller.createHeadless(version);
+        controller.startGame();
+        int games = 1;
+        int bestLevel = 1;
+        long start = System.nanoTime();
+        for (int i = 0; i < frames; i++)
+        {
+            int input = INPUT_FIRE | (((i / 90) % 2 == 0) ? INPUT_LEFT : INPUT_RIGHT);
+            if (i % 60 < 10)
+            {
+                input |= INPUT_THRUST;
+            }
+            controller.setInput(input);
+            controller.tick();
+            bestLevel = Math.max(bestLevel, controller.getLevel());
+            if (controller.getLives() <= 0)
+            {
+                controller.startGame();
+                games++;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d frames in %.2f s: %.0f frames per second%n", frames, seconds, frames / seconds);
+        System.out.printf("%d games played, highest level %d%n", games, bestLevel);
+        System.exit(0);
+    }
+}
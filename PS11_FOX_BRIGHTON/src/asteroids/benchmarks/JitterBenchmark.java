@@ -0,0 +1,130 @@
+package asteroids.benchmarks;
+
+import static asteroids.game.Constants.*;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import asteroids.game.GameLoop;
+import asteroids.game.JitterStats;
+import asteroids.game.ParticipantState;
+import asteroids.participants.Asteroid;
+
+/**
+ * Compares how regularly frames start when they are driven by a Swing timer, as in the original game, and when they
+ * are run by a GameLoop. Each is measured on a quiet event thread and on one that is kept busy by slow paints, which
+ * are simulated by a second timer that sleeps on the event thread.
+ */
+public class JitterBenchmark
+{
+    /** Number of asteroids in the simulated game */
+    private static final int ASTEROIDS = 200;
+
+    /** Number of milliseconds spent on each measurement */
+    private static final int MEASUREMENT_MSECS = 5000;
+
+    /** How often a slow paint happens, in milliseconds */
+    private static final int PAINT_INTERVAL = 50;
+
+    /** How long a slow paint takes, in milliseconds */
+    private static final int PAINT_MSECS = 20;
+
+    /**
+     * Runs the benchmark and prints the statistics for each combination.
+     */
+    public static void main (String[] args) throws Exception
+    {
+        for (boolean busy : new boolean[] { false, true })
+        {
+            String edt = busy ? "busy event thread" : "quiet event thread";
+            System.out.println("Swing timer, " + edt + ": " + measureTimer(busy));
+            System.out.println("Game loop,   " + edt + ": " + measureLoop(busy));
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Returns a ParticipantState full of randomly placed small asteroids.
+     */
+    private static ParticipantState createGame ()
+    {
+        Random random = new Random(0);
+        ParticipantState pstate = new ParticipantState();
+        for (int i = 0; i < ASTEROIDS; i++)
+        {
+            pstate.addParticipant(new Asteroid(random.nextInt(4), 0, SIZE * random.nextDouble(),
+                    SIZE * random.nextDouble(), null));
+        }
+        return pstate;
+    }
+
+    /**
+     * Returns a timer that, once started, keeps the event thread busy with slow paints.
+     */
+    private static Timer createPainter ()
+    {
+        return new Timer(PAINT_INTERVAL, e ->
+        {
+            try
+            {
+                Thread.sleep(PAINT_MSECS);
+            }
+            catch (InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    /**
+     * Measures frames driven by a Swing timer on the event thread.
+     */
+    private static JitterStats measureTimer (boolean busy) throws Exception
+    {
+        ParticipantState pstate = createGame();
+        JitterStats jitter = new JitterStats(FRAME_INTERVAL);
+        Timer frames = new Timer(FRAME_INTERVAL, e ->
+        {
+            jitter.frameStarted(System.nanoTime());
+            pstate.moveParticipants();
+        });
+        Timer painter = createPainter();
+        SwingUtilities.invokeAndWait( () ->
+        {
+            frames.start();
+            if (busy)
+            {
+                painter.start();
+            }
+        });
+        Thread.sleep(MEASUREMENT_MSECS);
+        CountDownLatch stopped = new CountDownLatch(1);
+        SwingUtilities.invokeLater( () ->
+        {
+            frames.stop();
+            painter.stop();
+            stopped.countDown();
+        });
+        stopped.await();
+        return jitter;
+    }
+
+    /**
+     * Measures frames run by a GameLoop.
+     */
+    private static JitterStats measureLoop (boolean busy) throws Exception
+    {
+        ParticipantState pstate = createGame();
+        GameLoop loop = new GameLoop(pstate::moveParticipants, FRAME_INTERVAL);
+        Timer painter = createPainter();
+        if (busy)
+        {
+            SwingUtilities.invokeAndWait(painter::start);
+        }
+        loop.start();
+        Thread.sleep(MEASUREMENT_MSECS);
+        loop.stop();
+        SwingUtilities.invokeAndWait(painter::stop);
+        return loop.getJitter();
+    }
+}
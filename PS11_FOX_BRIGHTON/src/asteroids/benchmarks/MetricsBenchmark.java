@@ -0,0 +1,79 @@
+package asteroids.benchmarks;
+
+import static asteroids.game.Constants.*;
+import static asteroids.game.Controller.*;
+import asteroids.game.Controller;
+import asteroids.game.FrameMetrics;
+
+/**
+ * Measures what measuring the frames costs, by playing the same headless games with and without FrameMetrics enabled
+ * and comparing how long they take, and then prints what was measured. The games alternate so that both see the same
+ * JIT compiler state. Headless frames take a few microseconds, so the overhead is reported both relative to them and
+ * relative to the time between frames that an interactive game has to spend. The optional arguments are the number of
+ * frames per game (default 20000) and the number of games of each kind (default 5).
+ */
+public class MetricsBenchmark
+{
+    /**
+     * Runs the benchmark.
+     */
+    public static void main (String[] args)
+    {
+        int frames = (args.length > 0) ? Integer.parseInt(args[0]) : 20_000;
+        int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+
+        // Warm up both paths
+        play(frames, false);
+        play(frames, true);
+
+        long plain = Long.MAX_VALUE;
+        long measured = Long.MAX_VALUE;
+        FrameMetrics metrics = null;
+        for (int i = 0; i < rounds; i++)
+        {
+            long start = System.nanoTime();
+            play(frames, false);
+            plain = Math.min(plain, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            metrics = play(frames, true);
+            measured = Math.min(measured, System.nanoTime() - start);
+        }
+
+        System.out.printf("Without metrics: %.2f us/frame%n", plain / 1e3 / frames);
+        System.out.printf("With metrics:    %.2f us/frame%n", measured / 1e3 / frames);
+        double overhead = (double) (measured - plain) / frames;
+        System.out.printf("Overhead:        %.2f us/frame, %.1f%% of a headless frame, %.4f%% of a %d ms frame%n",
+                overhead / 1e3, 100 * overhead * frames / plain, 100 * overhead / (FRAME_INTERVAL * 1e6),
+                FRAME_INTERVAL);
+        System.out.println();
+        System.out.println(metrics);
+        System.exit(0);
+    }
+
+    /**
+     * Plays a headless game with a fixed seed for the number of frames, measuring it if asked to, and returns the
+     * measurements (or null).
+     */
+    private static FrameMetrics play (int frames, boolean measure)
+    {
+        Controller controller = Controller.createHeadless(0, 1);
+        FrameMetrics metrics = measure ? controller.enableMetrics() : null;
+        controller.startGame();
+        for (int i = 0; i < frames; i++)
+        {
+            int input = INPUT_FIRE | (((i / 90) % 2 == 0) ? INPUT_LEFT : INPUT_RIGHT);
+            if (i % 60 < 10)
+            {
+                input |= INPUT_THRUST;
+            }
+            controller.setInput(input);
+            controller.tick();
+            if (controller.getLives() <= 0)
+            {
+                controller.startGame();
+            }
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,168 @@
+package asteroids.benchmarks;
+
+import static asteroids.game.Constants.*;
+import java.util.Random;
+import asteroids.game.Controller;
+import asteroids.game.Participant;
+import asteroids.participants.AlienBullet;
+import asteroids.participants.AlienShip;
+import asteroids.participants.Asteroid;
+import asteroids.participants.Bullet;
+import asteroids.participants.EnhancedAlienShip;
+import asteroids.participants.EnhancedPowerUp;
+import asteroids.participants.EnhancedShip;
+import asteroids.participants.Ship;
+
+/**
+ * Checks that Participant.overlaps() gives the same answers with CollisionPolygons as with the original Area
+ * intersection, over random pairs of participants of every kind placed close enough together that many of them
+ * overlap, all turned to random angles, and reports how long each way takes per pair. The wing tips of the ships
+ * double back along their hulls and enclose no area, so the polygons leave them out, but once they are turned Area
+ * keeps the slivers that rounding opens up between the two edges. When only Area finds an overlap and it encloses less
+ * than SLIVER, it is counted as one of those slivers rather than as a mismatch.
+ */
+public class OverlapBenchmark
+{
+    /** Number of random pairs to check */
+    private static final int PAIRS = 100_000;
+
+    /** Largest distance along each axis between the centers of a pair */
+    private static final double SPREAD = 90;
+
+    /**
+     * Largest area, in square pixels, of an overlap that is put down to rounding. Rounding moves the edges of a border
+     * a few hundred pixels from the origin by less than 1e-12 pixels, while real overlaps that Area and the polygons
+     * agree on enclose more than 1e-6 square pixels.
+     */
+    private static final double SLIVER = 1e-8;
+
+    /** Number of mismatches that are described in detail */
+    private static final int REPORTED = 10;
+
+    /**
+     * Runs the check, exiting with status 1 if the two ways ever disagree.
+     */
+    public static void main (String[] args)
+    {
+        Controller controller = Controller.createHeadless(0, 1);
+        Random random = new Random(1);
+        Participant[][] pairs = new Participant[PAIRS][];
+        for (int i = 0; i < PAIRS; i++)
+        {
+            Participant a = create(random, controller, SIZE / 2, SIZE / 2);
+            Participant b = create(random, controller, SIZE / 2 + SPREAD * (2 * random.nextDouble() - 1),
+                    SIZE / 2 + SPREAD * (2 * random.nextDouble() - 1));
+            pairs[i] = new Participant[] { a, b };
+        }
+
+        // Compare the answers
+        int overlapping = 0;
+        int mismatches = 0;
+        int slivers = 0;
+        for (Participant[] pair : pairs)
+        {
+            Participant.setAreaOverlaps(true);
+            boolean expected = pair[0].overlaps(pair[1]);
+            Participant.setAreaOverlaps(false);
+            boolean actual = pair[0].overlaps(pair[1]);
+            if (expected)
+            {
+                overlapping++;
+            }
+            if (expected && !actual && pair[0].getAreaOverlap(pair[1]) < SLIVER)
+            {
+                slivers++;
+            }
+            else if (actual != expected)
+            {
+                if (mismatches++ < REPORTED)
+                {
+                    System.out.printf("%s at (%.3f, %.3f) turned %.3f and %s at (%.3f, %.3f) turned %.3f: "
+                            + "Area says %b%n", describe(pair[0]), pair[0].getX(), pair[0].getY(),
+                            pair[0].getRotation(), describe(pair[1]), pair[1].getX(), pair[1].getY(),
+                            pair[1].getRotation(), expected);
+                }
+            }
+        }
+
+        double area = time(pairs, true);
+        double polygons = time(pairs, false);
+        Participant.setAreaOverlaps(false);
+
+        System.out.printf("%d pairs, %d overlapping, %d slivers, %d mismatches%n", PAIRS, overlapping, slivers,
+                mismatches);
+        System.out.printf("Area: %.0f ns per pair, CollisionPolygon: %.0f ns per pair%n", area, polygons);
+        System.exit((mismatches == 0) ? 0 : 1);
+    }
+
+    /**
+     * Returns a participant of a random kind at (x, y), turned at random and standing still, with its border placed.
+     */
+    private static Participant create (Random random, Controller controller, double x, double y)
+    {
+        Participant p;
+        switch (random.nextInt(8))
+        {
+            case 0:
+            case 1:
+                p = new Asteroid(random.nextInt(4), random.nextInt(3), x, y, null);
+                break;
+            case 2:
+                p = Bullet.create((int) x, (int) y, 0, controller);
+                break;
+            case 3:
+                p = AlienBullet.create((int) x, (int) y, 0, controller);
+                break;
+            case 4:
+                p = random.nextBoolean() ? new Ship((int) x, (int) y, 0, controller)
+                        : new EnhancedShip((int) x, (int) y, 0, controller);
+                break;
+            case 5:
+                p = new AlienShip(random.nextInt(2), controller);
+                break;
+            case 6:
+                p = new EnhancedAlienShip(random.nextInt(2), controller);
+                break;
+            default:
+                p = new EnhancedPowerUp(random.nextInt(3), x, y, controller);
+                break;
+        }
+        p.setPosition(x, y);
+        p.setVelocity(0, 0);
+        p.setRotation(2 * Math.PI * random.nextDouble());
+        p.move();
+        return p;
+    }
+
+    /**
+     * Returns the name of the class of p.
+     */
+    private static String describe (Participant p)
+    {
+        return p.getClass().getSimpleName();
+    }
+
+    /**
+     * Returns the average number of nanoseconds that overlaps() takes for one of the pairs, the Area way or the
+     * CollisionPolygon way.
+     */
+    private static double time (Participant[][] pairs, boolean area)
+    {
+        Participant.setAreaOverlaps(area);
+        int sink = 0;
+        for (int round = 0; round < 2; round++)
+        {
+            for (Participant[] pair : pairs)
+            {
+                sink += pair[0].overlaps(pair[1]) ? 1 : 0;
+            }
+        }
+        long start = System.nanoTime();
+        for (Participant[] pair : pairs)
+        {
+            sink += pair[0].overlaps(pair[1]) ? 1 : 0;
+        }
+        double nanos = (double) (System.nanoTime() - start) / pairs.length;
+        return (sink < 0) ? -1 : nanos;
+    }
+}
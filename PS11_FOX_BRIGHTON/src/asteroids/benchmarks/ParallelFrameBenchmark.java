@@ -0,0 +1,85 @@
+package asteroids.benchmarks;
+
+import asteroids.game.ParticipantState;
+
+/**
+ * Measures how long a frame of ParticipantState takes when the participants are moved and their collisions found one at
+ * a time, and when that is done on all of the processors at once, and checks that both end up in the same state. The
+ * participants are a CollisionScene of small asteroids and bullets. Reports the number of participants from which on
+ * the parallel frames win.
+ */
+public class ParallelFrameBenchmark
+{
+    /** Numbers of participants to measure */
+    private static final int[] COUNTS = { 256, 512, 1024, 2048, 4096, 8192 };
+
+    /** Number of untimed frames that are simulated before each measurement */
+    private static final int WARMUP_FRAMES = 100;
+
+    /** Minimum number of nanoseconds spent on each measurement */
+    private static final long MEASUREMENT_NANOS = 500_000_000L;
+
+    /** Checksum of the state after the warmup frames of the most recent measurement */
+    private static long checksum;
+
+    /**
+     * Runs the benchmark and prints a table of microseconds per frame.
+     */
+    public static void main (String[] args)
+    {
+        System.out.println(Runtime.getRuntime().availableProcessors() + " processors");
+        System.out.printf("%12s %16s %16s%n", "participants", "serial (us)", "parallel (us)");
+        int crossover = -1;
+        for (int n : COUNTS)
+        {
+            double serial = measure(n, Integer.MAX_VALUE);
+            long serialChecksum = checksum;
+            double parallel = measure(n, 0);
+            System.out.printf("%12d %16.1f %16.1f%n", n, serial, parallel);
+            if (checksum != serialChecksum)
+            {
+                System.out.println("The parallel frames ended in a different state than the serial ones");
+            }
+            if (parallel >= serial)
+            {
+                crossover = -1;
+            }
+            else if (crossover < 0)
+            {
+                crossover = n;
+            }
+        }
+        System.out.println("The parallel frames are faster starting at " + crossover + " participants");
+        System.exit(0);
+    }
+
+    /**
+     * Returns the average number of microseconds needed to simulate one frame of a CollisionScene of n participants,
+     * using the given parallel threshold. The warmup frames are the same for every measurement of n participants, so
+     * the checksums after them can be compared.
+     */
+    private static double measure (int n, int parallelThreshold)
+    {
+        ParticipantState pstate = new ParticipantState();
+        pstate.setParallelThreshold(parallelThreshold);
+        new CollisionScene(pstate, n, n);
+
+        for (int i = 0; i < WARMUP_FRAMES; i++)
+        {
+            pstate.moveParticipants();
+        }
+        checksum = pstate.checksum();
+
+        int frames = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do
+        {
+            pstate.moveParticipants();
+            frames++;
+            elapsed = System.nanoTime() - start;
+        }
+        while (elapsed < MEASUREMENT_NANOS);
+        return elapsed / 1000.0 / frames;
+    }
+}
@@ -0,0 +1,68 @@
+package asteroids.benchmarks;
+
+import static asteroids.game.Controller.*;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import asteroids.game.Controller;
+import asteroids.game.Replay;
+
+/**
+ * Records a scripted headless game, reports how big the recording is, and then plays it back as fast as possible to
+ * check that it comes out the same. The optional argument is the name of a replay file (such as one recorded with
+ * -Dasteroids.record) to check instead.
+ */
+public class ReplayBenchmark
+{
+    /** Number of frames in the scripted game */
+    private static final int FRAMES = 20_000;
+
+    /**
+     * Runs the benchmark.
+     */
+    public static void main (String[] args) throws IOException
+    {
+        Replay replay = (args.length > 0) ? Replay.load(new File(args[0])) : record();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        replay.write(bytes);
+        System.out.printf("%d frames recorded in %d bytes (%.2f bytes per frame)%n", replay.getFrames(), bytes.size(),
+                (double) bytes.size() / replay.getFrames());
+
+        // Warm up, then time the playback
+        replay.verify();
+        long start = System.nanoTime();
+        int divergence = replay.verify();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Played back in %.2f s: %.0f frames per second%n", seconds, replay.getFrames() / seconds);
+        System.out.println((divergence < 0) ? "The replay matched the recording"
+                : "The replay differed from the recording at frame " + divergence);
+        System.exit(0);
+    }
+
+    /**
+     * Records a game in which the player keeps firing, turns one way and then the other, and thrusts now and then,
+     * starting a new game whenever one ends.
+     */
+    private static Replay record ()
+    {
+        Controller controller = Controller.createHeadlessRecording(0, 1);
+        controller.startGame();
+        for (int i = 0; i < FRAMES; i++)
+        {
+            int input = ((i / 7) % 3 != 0) ? INPUT_FIRE : 0;
+            input |= ((i / 90) % 2 == 0) ? INPUT_LEFT : INPUT_RIGHT;
+            if (i % 60 < 10)
+            {
+                input |= INPUT_THRUST;
+            }
+            controller.setInput(input);
+            controller.tick();
+            if (controller.getLives() <= 0)
+            {
+                controller.startGame();
+            }
+        }
+        return controller.getRecording();
+    }
+}
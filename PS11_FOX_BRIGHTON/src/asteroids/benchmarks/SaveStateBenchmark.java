@@ -0,0 +1,140 @@
+package asteroids.benchmarks;
+
+import static asteroids.game.Controller.*;
+import java.nio.ByteBuffer;
+import asteroids.game.Controller;
+import asteroids.game.Participant;
+import asteroids.game.RewindBuffer;
+
+/**
+ * Measures how long it takes to save and restore the state of a headless game, and checks that a restored game plays
+ * on exactly as the original did, both from a single saved state and after rewinding with a RewindBuffer. Both
+ * versions of the game are measured.
+ */
+public class SaveStateBenchmark
+{
+    /** Number of frames played before the state is saved */
+    private static final int WARM_UP_FRAMES = 3000;
+
+    /** Number of frames played after the state is saved, and again after it is restored */
+    private static final int CHECKED_FRAMES = 3000;
+
+    /** Number of saves and restores that are timed */
+    private static final int REPETITIONS = 20_000;
+
+    /** Number of states kept for rewinding */
+    private static final int REWIND_FRAMES = 120;
+
+    /**
+     * Runs the benchmark.
+     */
+    public static void main (String[] args)
+    {
+        for (int version = 0; version <= 1; version++)
+        {
+            System.out.println((version == 0) ? "Classic:" : "Enhanced:");
+            measure(version);
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Measures and checks one version of the game.
+     */
+    private static void measure (int version)
+    {
+        Controller controller = Controller.createHeadless(version, 1);
+        controller.startGame();
+        for (int frame = 0; frame < WARM_UP_FRAMES; frame++)
+        {
+            play(controller, frame);
+        }
+
+        // Save, play on, restore, and play the same frames again
+        ByteBuffer state = ByteBuffer.allocate(1 << 20);
+        controller.saveState(state);
+        int size = state.position();
+        long[] checksums = new long[CHECKED_FRAMES];
+        for (int i = 0; i < CHECKED_FRAMES; i++)
+        {
+            play(controller, WARM_UP_FRAMES + i);
+            checksums[i] = controller.checksum();
+        }
+        state.flip();
+        controller.restoreState(state);
+        int divergence = -1;
+        for (int i = 0; i < CHECKED_FRAMES && divergence < 0; i++)
+        {
+            play(controller, WARM_UP_FRAMES + i);
+            if (controller.checksum() != checksums[i])
+            {
+                divergence = i;
+            }
+        }
+        System.out.printf("  %d participants saved in %d bytes%n", countParticipants(controller), size);
+        System.out.println((divergence < 0) ? "  The restored game played on exactly as the original did"
+                : "  The restored game differed from the original after " + divergence + " frames");
+
+        // Time saving and restoring
+        long start = System.nanoTime();
+        for (int i = 0; i < REPETITIONS; i++)
+        {
+            state.clear();
+            controller.saveState(state);
+        }
+        double saveMicros = (System.nanoTime() - start) / 1e3 / REPETITIONS;
+        start = System.nanoTime();
+        for (int i = 0; i < REPETITIONS; i++)
+        {
+            state.rewind();
+            controller.restoreState(state);
+        }
+        double restoreMicros = (System.nanoTime() - start) / 1e3 / REPETITIONS;
+        System.out.printf("  Save %.2f us, restore %.2f us%n", saveMicros, restoreMicros);
+
+        // Rewind halfway back through the most recent frames
+        RewindBuffer rewind = new RewindBuffer(REWIND_FRAMES);
+        long[] recent = new long[REWIND_FRAMES];
+        for (int i = 0; i < REWIND_FRAMES; i++)
+        {
+            play(controller, i);
+            rewind.save(controller);
+            recent[i] = controller.checksum();
+        }
+        rewind.rewind(controller, REWIND_FRAMES / 2);
+        System.out.println((controller.checksum() == recent[REWIND_FRAMES / 2 - 1])
+                ? "  Rewinding restored the right frame" : "  Rewinding restored the wrong frame");
+    }
+
+    /**
+     * Plays a frame in which the player keeps firing and turning and thrusts now and then, starting a new game if the
+     * last one has ended.
+     */
+    private static void play (Controller controller, int frame)
+    {
+        int input = INPUT_FIRE | (((frame / 90) % 2 == 0) ? INPUT_LEFT : INPUT_RIGHT);
+        if (frame % 60 < 10)
+        {
+            input |= INPUT_THRUST;
+        }
+        controller.setInput(input);
+        controller.tick();
+        if (controller.getLives() <= 0)
+        {
+            controller.startGame();
+        }
+    }
+
+    /**
+     * Returns the number of participants in the game.
+     */
+    private static int countParticipants (Controller controller)
+    {
+        int count = 0;
+        for (Participant p : controller)
+        {
+            count++;
+        }
+        return count;
+    }
+}
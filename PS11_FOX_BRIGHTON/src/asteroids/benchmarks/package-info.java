@@ -0,0 +1,9 @@
+/**
+ * This package contains stand-alone programs that measure the performance
+ * of the game's simulation. Each one has a main method and prints its results.
+ * The JMH benchmarks of the code that runs every frame are in the same package
+ * in the benchmarks module. They are built into benchmarks/target/benchmarks.jar
+ * by mvn package, and java -jar benchmarks/target/benchmarks.jar -rf json
+ * writes their results to jmh-result.json.
+ */
+package asteroids.benchmarks;
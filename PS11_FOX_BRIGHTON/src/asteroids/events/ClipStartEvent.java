@@ -0,0 +1,43 @@
+package asteroids.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A sound clip being rewound and started.
+ */
+@Name("asteroids.ClipStart")
+@Label("Clip Start")
+@Category("Asteroids")
+@Description("Rewinding and starting a sound clip, which happens on the thread that runs the frames")
+@StackTrace(false)
+public class ClipStartEvent extends jdk.jfr.Event
+{
+    /** Name of the sound file that the clip plays */
+    @Label("Sound")
+    private String sound;
+
+    /**
+     * Starts timing the clip's start.
+     */
+    public ClipStartEvent ()
+    {
+        begin();
+    }
+
+    /**
+     * Ends the start of the clip that plays the sound, and commits it if it is wanted.
+     */
+    public void finish (String sound)
+    {
+        end();
+        if (shouldCommit())
+        {
+            this.sound = sound;
+            commit();
+        }
+    }
+}
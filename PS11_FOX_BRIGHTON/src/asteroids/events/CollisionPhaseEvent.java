@@ -0,0 +1,53 @@
+package asteroids.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The part of a frame in which collisions are found and the participants respond to them.
+ */
+@Name("asteroids.CollisionPhase")
+@Label("Collision Phase")
+@Category("Asteroids")
+@Description("Finding the collisions of a frame and letting the participants respond to them")
+@StackTrace(false)
+public class CollisionPhaseEvent extends jdk.jfr.Event
+{
+    /** Number of participants checked for collisions */
+    @Label("Participants")
+    private int participants;
+
+    /** Number of pairs of participants tested for a collision */
+    @Label("Pairs Tested")
+    private int pairsTested;
+
+    /** Number of the tested pairs that collided */
+    @Label("Collisions")
+    private int collisions;
+
+    /**
+     * Starts timing the phase.
+     */
+    public CollisionPhaseEvent ()
+    {
+        begin();
+    }
+
+    /**
+     * Ends the phase, in which the given number of participants were checked, and commits it if it is wanted.
+     */
+    public void finish (int participants, int pairsTested, int collisions)
+    {
+        end();
+        if (shouldCommit())
+        {
+            this.participants = participants;
+            this.pairsTested = pairsTested;
+            this.collisions = collisions;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package asteroids.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One frame of a game, from reading the keys to taking the snapshot to draw.
+ */
+@Name("asteroids.Frame")
+@Label("Frame")
+@Category("Asteroids")
+@Description("One frame of a game, from reading the keys to taking the snapshot to draw")
+@StackTrace(false)
+public class FrameEvent extends jdk.jfr.Event
+{
+    /** Level the game was on at the end of the frame */
+    @Label("Level")
+    private int level;
+
+    /** Number of participants at the end of the frame */
+    @Label("Participants")
+    private int participants;
+
+    /**
+     * Starts timing the frame.
+     */
+    public FrameEvent ()
+    {
+        begin();
+    }
+
+    /**
+     * Ends the frame, which had reached the level with the number of participants, and commits it if it is wanted.
+     */
+    public void finish (int level, int participants)
+    {
+        end();
+        if (shouldCommit())
+        {
+            this.level = level;
+            this.participants = participants;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package asteroids.events;
+
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+
+/**
+ * Keeps track of whether a flight recording wants any of the game's events. The game checks isEnabled() before
+ * creating an event, so when nothing is being recorded (or the JVM has no flight recorder) each place that could emit
+ * an event costs a single branch.
+ */
+public class GameEvents
+{
+    /** The game's event types */
+    private static final Class<?>[] TYPES = { FrameEvent.class, CollisionPhaseEvent.class, ParticipantSpawnEvent.class,
+            ParticipantExpireEvent.class, TimerFiredEvent.class, LevelTransitionEvent.class, ClipStartEvent.class };
+
+    /** Whether any of the game's events is enabled in a running recording */
+    private static volatile boolean enabled;
+
+    static
+    {
+        try
+        {
+            FlightRecorder.addListener(new FlightRecorderListener()
+            {
+                @Override
+                public void recordingStateChanged (Recording recording)
+                {
+                    refresh();
+                }
+            });
+
+            // A recording may have been started from the command line before the game began
+            if (FlightRecorder.isInitialized())
+            {
+                refresh();
+            }
+        }
+        catch (LinkageError e)
+        {
+            // This JVM has no flight recorder, so the events stay disabled
+        }
+    }
+
+    /**
+     * There are no instances.
+     */
+    private GameEvents ()
+    {
+    }
+
+    /**
+     * Reports whether any of the game's events should be created.
+     */
+    public static boolean isEnabled ()
+    {
+        return enabled;
+    }
+
+    /**
+     * Finds out whether any of the game's event types is enabled by the recordings now running.
+     */
+    private static void refresh ()
+    {
+        boolean any = false;
+        for (Class<?> type : TYPES)
+        {
+            any |= EventType.getEventType(type.asSubclass(Event.class)).isEnabled();
+        }
+        enabled = any;
+    }
+}
@@ -0,0 +1,53 @@
+package asteroids.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A game moving on to its next level.
+ */
+@Name("asteroids.LevelTransition")
+@Label("Level Transition")
+@Category("Asteroids")
+@Description("A game clearing the screen and setting up its next level")
+@StackTrace(false)
+public class LevelTransitionEvent extends jdk.jfr.Event
+{
+    /** The new level */
+    @Label("Level")
+    private int level;
+
+    /** Score at the start of the new level */
+    @Label("Score")
+    private int score;
+
+    /** Lives left at the start of the new level */
+    @Label("Lives")
+    private int lives;
+
+    /**
+     * Starts timing the transition.
+     */
+    public LevelTransitionEvent ()
+    {
+        begin();
+    }
+
+    /**
+     * Ends the transition to the level, which was reached with the score and lives, and commits it if it is wanted.
+     */
+    public void finish (int level, int score, int lives)
+    {
+        end();
+        if (shouldCommit())
+        {
+            this.level = level;
+            this.score = score;
+            this.lives = lives;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package asteroids.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A participant expiring.
+ */
+@Name("asteroids.ParticipantExpire")
+@Label("Participant Expire")
+@Category("Asteroids")
+@Description("A participant expiring, after which it is removed from the game")
+@StackTrace(false)
+public class ParticipantExpireEvent extends jdk.jfr.Event
+{
+    /** Class of the participant */
+    @Label("Participant Class")
+    private Class<?> participantClass;
+
+    /**
+     * Records that a participant of the class has expired, if the event is wanted.
+     */
+    public static void emit (Class<?> participantClass)
+    {
+        ParticipantExpireEvent event = new ParticipantExpireEvent();
+        if (event.isEnabled())
+        {
+            event.participantClass = participantClass;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package asteroids.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A participant joining the game.
+ */
+@Name("asteroids.ParticipantSpawn")
+@Label("Participant Spawn")
+@Category("Asteroids")
+@Description("A participant joining the game at the end of a frame")
+@StackTrace(false)
+public class ParticipantSpawnEvent extends jdk.jfr.Event
+{
+    /** Class of the participant */
+    @Label("Participant Class")
+    private Class<?> participantClass;
+
+    /**
+     * Records that a participant of the class has joined the game, if the event is wanted.
+     */
+    public static void emit (Class<?> participantClass)
+    {
+        ParticipantSpawnEvent event = new ParticipantSpawnEvent();
+        if (event.isEnabled())
+        {
+            event.participantClass = participantClass;
+            event.commit();
+        }
+    }
+}
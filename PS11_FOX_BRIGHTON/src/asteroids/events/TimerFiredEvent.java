@@ -0,0 +1,49 @@
+package asteroids.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A ParticipantCountdownTimer calling back its participant.
+ */
+@Name("asteroids.TimerFired")
+@Label("Timer Fired")
+@Category("Asteroids")
+@Description("A participant's countdown timer completing and calling the participant back")
+@StackTrace(false)
+public class TimerFiredEvent extends jdk.jfr.Event
+{
+    /** Class of the participant called back */
+    @Label("Participant Class")
+    private Class<?> participantClass;
+
+    /** The payload passed to the participant, as a string */
+    @Label("Payload")
+    private String payload;
+
+    /**
+     * Starts timing the callback.
+     */
+    public TimerFiredEvent ()
+    {
+        begin();
+    }
+
+    /**
+     * Ends the callback, which was made to a participant of the class with the payload, and commits it if it is
+     * wanted.
+     */
+    public void finish (Class<?> participantClass, Object payload)
+    {
+        end();
+        if (shouldCommit())
+        {
+            this.participantClass = participantClass;
+            this.payload = (payload == null) ? null : payload.toString();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * This package contains the Java Flight Recorder events that the game
+ * emits, so that a recording shows frames, collisions, participants,
+ * timers, levels, and sounds alongside what the JVM was doing.
+ */
+package asteroids.events;
@@ -1,10 +1,16 @@
 package asteroids.game;
 
+import java.io.File;
+import java.io.IOException;
+import javax.management.JMException;
 import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
 
 /**
- * The main class for the application.
+ * The main class for the application. Run it with -Dasteroids.gameLoop=true to run the game's frames on a thread of
+ * their own instead of on the Swing event thread. Run it with -Dasteroids.record=file to record the game into the file
+ * each time a game ends, or with -Dasteroids.replay=file to watch a recorded game. Run it with -Dasteroids.metrics=true
+ * to measure where the time of each frame goes and offer the measurements over JMX.
  */
 public class Asteroids
 {
@@ -13,7 +19,59 @@ public class Asteroids
      */
     public static void main (String[] args)
     {
-        SwingUtilities.invokeLater( () -> chooseVersion());
+        String replay = System.getProperty("asteroids.replay");
+        if (replay != null)
+        {
+            SwingUtilities.invokeLater( () -> watch(new File(replay)));
+        }
+        else
+        {
+            SwingUtilities.invokeLater( () -> chooseVersion());
+        }
+    }
+
+    /**
+     * Plays back the recorded game in the file.
+     */
+    private static void watch (File file)
+    {
+        try
+        {
+            Controller.createReplay(Replay.load(file), false);
+        }
+        catch (IOException e)
+        {
+            JOptionPane.showMessageDialog(null, "Could not load " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Creates a controller for the version, recording it if asked to.
+     */
+    private static void play (int version)
+    {
+        boolean useGameLoop = Boolean.getBoolean("asteroids.gameLoop");
+        String record = System.getProperty("asteroids.record");
+        Controller controller;
+        if (record != null)
+        {
+            controller = Controller.createRecording(version, useGameLoop, new File(record));
+        }
+        else
+        {
+            controller = new Controller(version, useGameLoop);
+        }
+        if (Boolean.getBoolean("asteroids.metrics"))
+        {
+            try
+            {
+                controller.enableMetrics().register();
+            }
+            catch (JMException e)
+            {
+                System.err.println("Could not offer the frame metrics over JMX: " + e);
+            }
+        }
     }
 
     /**
@@ -26,7 +84,7 @@ public class Asteroids
                 JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
         if (choice == 0)
         {
-            new Controller(0);
+            play(0);
         }
         else if (choice == 1)
         {
@@ -48,7 +106,7 @@ public class Asteroids
              * --Double Points double the points awarded for 5 seconds
              * 
              */           
-            new Controller(1);
+            play(1);
         }
     }
 }
@@ -0,0 +1,237 @@
+package asteroids.game;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * Plays many headless games at once, for testing the balance of the game or evaluating bots. Each game is an
+ * independent Controller with its own ParticipantState, random numbers, and frame count, so the games can run on
+ * different threads without sharing anything. They are spread over a work-stealing ForkJoinPool. Games end at different
+ * times, and threads that run out of games take over the work of the others. A game never waits on I/O or a lock, so
+ * nothing is gained from more threads than processors, and virtual threads, which help threads that block, would only
+ * add scheduling on top of a ForkJoinPool of their own.
+ */
+public class BatchSimulation
+{
+    /**
+     * Decides which keys are down on each frame of a game.
+     */
+    public interface Bot
+    {
+        /**
+         * Returns the input for the given frame of the game, as a combination of Controller's INPUT_ bits.
+         */
+        int chooseInput (Controller controller, int frame);
+    }
+
+    /**
+     * How one game turned out.
+     */
+    public static class Result
+    {
+        /** Seed of the game's random numbers */
+        public final long seed;
+
+        /** Number of frames played */
+        public final int frames;
+
+        /** Final score */
+        public final int score;
+
+        /** Level reached */
+        public final int level;
+
+        /** True if the player ran out of lives, false if the game was stopped at the frame limit */
+        public final boolean gameOver;
+
+        /**
+         * Records how a game turned out.
+         */
+        Result (long seed, int frames, int score, int level, boolean gameOver)
+        {
+            this.seed = seed;
+            this.frames = frames;
+            this.score = score;
+            this.level = level;
+            this.gameOver = gameOver;
+        }
+    }
+
+    /**
+     * How a batch of games turned out, and how fast it was played.
+     */
+    public static class Report
+    {
+        /** How each game turned out, in the order of their seeds */
+        public final Result[] results;
+
+        /** Number of threads that played the games */
+        public final int threads;
+
+        /** Time taken to play all of the games, in nanoseconds */
+        public final long nanos;
+
+        /**
+         * Records how a batch turned out.
+         */
+        Report (Result[] results, int threads, long nanos)
+        {
+            this.results = results;
+            this.threads = threads;
+            this.nanos = nanos;
+        }
+
+        /**
+         * Returns the total number of frames played.
+         */
+        public long getTotalFrames ()
+        {
+            long total = 0;
+            for (Result r : results)
+            {
+                total += r.frames;
+            }
+            return total;
+        }
+
+        /**
+         * Returns the number of games played per second.
+         */
+        public double getGamesPerSecond ()
+        {
+            return results.length / (nanos / 1e9);
+        }
+
+        /**
+         * Returns the number of frames played per second, over all the games.
+         */
+        public double getFramesPerSecond ()
+        {
+            return getTotalFrames() / (nanos / 1e9);
+        }
+
+        /**
+         * Returns the mean final score.
+         */
+        public double getMeanScore ()
+        {
+            double total = 0;
+            for (Result r : results)
+            {
+                total += r.score;
+            }
+            return (results.length == 0) ? 0 : total / results.length;
+        }
+
+        @Override
+        public String toString ()
+        {
+            return String.format("%d games on %d threads in %.2f s: %.1f games/s, %.0f frames/s, mean score %.0f",
+                    results.length, threads, nanos / 1e9, getGamesPerSecond(), getFramesPerSecond(), getMeanScore());
+        }
+    }
+
+    /** Version of the game (0 for classic, 1 for enhanced) */
+    private final int version;
+
+    /** Most frames that a game may last */
+    private final int maxFrames;
+
+    /** Makes a bot for each game */
+    private final Supplier<? extends Bot> bots;
+
+    /**
+     * Creates a simulation of games of the given version that last until the player runs out of lives or maxFrames
+     * frames have been played. Each game is played by a new bot from the supplier.
+     */
+    public BatchSimulation (int version, int maxFrames, Supplier<? extends Bot> bots)
+    {
+        this.version = version;
+        this.maxFrames = maxFrames;
+        this.bots = bots;
+    }
+
+    /**
+     * Plays the given number of games on the given number of threads. The games' seeds are firstSeed, firstSeed + 1,
+     * and so on, so a batch can be played again with the same outcome.
+     */
+    public Report run (long firstSeed, int games, int threads)
+    {
+        Result[] results = new Result[games];
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try
+        {
+            long start = System.nanoTime();
+            pool.invoke(new Games(results, firstSeed, 0, games));
+            return new Report(results, threads, System.nanoTime() - start);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays the game with the given seed from start to finish.
+     */
+    public Result play (long seed)
+    {
+        Controller controller = Controller.createHeadless(version, seed);
+        Bot bot = bots.get();
+        controller.startGame();
+        int frame = 0;
+        while (frame < maxFrames && controller.getLives() > 0)
+        {
+            controller.setInput(bot.chooseInput(controller, frame));
+            controller.tick();
+            frame++;
+        }
+        return new Result(seed, frame, controller.getScore(), controller.getLevel(), controller.getLives() <= 0);
+    }
+
+    /**
+     * Plays a range of the games, splitting it in half until only one game is left so that idle threads can steal the
+     * halves.
+     */
+    @SuppressWarnings("serial")
+    private class Games extends RecursiveAction
+    {
+        /** Where the results go */
+        private final Result[] results;
+
+        /** Seed of game 0 */
+        private final long firstSeed;
+
+        /** First game of the range */
+        private final int from;
+
+        /** One past the last game of the range */
+        private final int to;
+
+        /**
+         * Creates a task that plays games from through to - 1.
+         */
+        Games (Result[] results, long firstSeed, int from, int to)
+        {
+            this.results = results;
+            this.firstSeed = firstSeed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute ()
+        {
+            if (to - from == 1)
+            {
+                results[from] = play(firstSeed + from);
+            }
+            else if (to > from)
+            {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Games(results, firstSeed, from, middle), new Games(results, firstSeed, middle, to));
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package asteroids.game;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Records which classes of Participant can ever act on a collision with each other, so that ParticipantState can skip
+ * pairs that can't before doing any geometry. Each class is given a kind number the first time a participant of it is
+ * added to a game. What a class is comes from the marker interfaces it implements (and its superclasses), and what it
+ * acts on comes from its getCollidesWith(); two kinds interact if either one's getCollidesWith() is a type the other
+ * class belongs to.
+ *
+ * The matrix has a row of 64 bits for each kind, so it can tell apart 64 kinds. Participants of any further classes are
+ * given the kind OVERFLOW and are tested against everything. The matrix is replaced rather than changed when a kind is
+ * added, so games on several threads can read it without locking.
+ */
+final class CollisionMatrix
+{
+    /** Kind of the participants whose classes didn't fit in the matrix */
+    static final int OVERFLOW = 64;
+
+    /** Kind of a participant that hasn't been given one yet */
+    static final int UNKNOWN = -1;
+
+    /** For each kind, a bit for each kind that it interacts with */
+    private static volatile long[] matrix = new long[0];
+
+    /** Kind of each class seen so far */
+    private static final Map<Class<?>, Integer> kinds = new IdentityHashMap<>();
+
+    /** Class of each kind */
+    private static final ArrayList<Class<?>> classes = new ArrayList<>();
+
+    /** What the class of each kind acts on colliding with, or null if nothing */
+    private static final ArrayList<Class<?>> targets = new ArrayList<>();
+
+    /**
+     * There are no CollisionMatrix objects.
+     */
+    private CollisionMatrix ()
+    {
+    }
+
+    /**
+     * Returns the kind of p's class, adding the class to the matrix if it is new.
+     */
+    static synchronized int kindOf (Participant p)
+    {
+        Class<?> type = p.getClass();
+        Integer kind = kinds.get(type);
+        if (kind != null)
+        {
+            return kind;
+        }
+        if (classes.size() == OVERFLOW)
+        {
+            kinds.put(type, OVERFLOW);
+            return OVERFLOW;
+        }
+
+        // Work out which of the known kinds the new one interacts with, itself included
+        int k = classes.size();
+        Class<?> target = p.getCollidesWith();
+        classes.add(type);
+        targets.add(target);
+        long[] rows = new long[k + 1];
+        System.arraycopy(matrix, 0, rows, 0, k);
+        for (int j = 0; j <= k; j++)
+        {
+            if (acts(target, classes.get(j)) || acts(targets.get(j), type))
+            {
+                rows[k] |= 1L << j;
+                rows[j] |= 1L << k;
+            }
+        }
+        matrix = rows;
+        kinds.put(type, k);
+        return k;
+    }
+
+    /**
+     * Returns the current matrix, which has a row for every kind given out so far.
+     */
+    static long[] get ()
+    {
+        return matrix;
+    }
+
+    /**
+     * Reports whether participants of the two kinds can interact, according to the matrix.
+     */
+    static boolean interact (long[] matrix, int kind1, int kind2)
+    {
+        return kind1 >= OVERFLOW || kind2 >= OVERFLOW || (matrix[kind1] & (1L << kind2)) != 0;
+    }
+
+    /**
+     * Reports whether a participant that acts on collisions with target acts on a collision with one of the given
+     * class.
+     */
+    private static boolean acts (Class<?> target, Class<?> type)
+    {
+        return target != null && target.isAssignableFrom(type);
+    }
+}
@@ -0,0 +1,425 @@
+package asteroids.game;
+
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+import java.util.Arrays;
+
+/**
+ * A Participant outline flattened into arrays of vertex coordinates, so that collisions can be detected with plain
+ * arithmetic instead of by intersecting java.awt.geom.Area objects.
+ *
+ * Each subpath of the outline is treated the way Area treats it: it is implicitly closed, parts with no area (such as
+ * single lines, or the wing tips of a ship that double back along its hull) are ignored, and a point is inside the
+ * outline if the subpaths wind around it a nonzero number of times. Two outlines overlap if an edge of one crosses an
+ * edge of the other or a vertex of one lies inside the other. When both outlines are single convex polygons, the
+ * cheaper separating-axis test is used instead.
+ *
+ * The coordinates of an outline are stored once, relative to the Participant's center. A Participant keeps its own
+ * array of transformed coordinates, which is filled in by transform() each time it moves.
+ */
+public class CollisionPolygon
+{
+    /** Maximum distance between a curve and the line segments that replace it */
+    private static final double FLATNESS = 0.25;
+
+    /** Rings with an area smaller than this are treated as having no area */
+    private static final double MIN_AREA = 1e-9;
+
+    /** Coordinates of every point of the outline, as x0, y0, x1, y1, ... */
+    private final double[] points;
+
+    /**
+     * The vertices of the rings (the parts of the subpaths that have area), one ring after another. Each vertex is the
+     * index in points of its x-coordinate.
+     */
+    private final int[] vertices;
+
+    /** For each ring, the index in vertices of its first vertex */
+    private final int[] ringStarts;
+
+    /** For each ring, one more than the index in vertices of its last vertex */
+    private final int[] ringEnds;
+
+    /** True if the outline consists of exactly one ring, and that ring is convex */
+    private final boolean convex;
+
+    /** Distance from (0,0) to the farthest point of the outline */
+    private final double radius;
+
+    /**
+     * Flattens the outline into a CollisionPolygon.
+     */
+    public CollisionPolygon (Shape outline)
+    {
+        // Collect the points, remembering where each subpath starts
+        double[] pts = new double[32];
+        int[] subpaths = new int[8];
+        int count = 0;
+        int subpathCount = 0;
+        double moveX = 0, moveY = 0;
+        double[] coords = new double[6];
+        double max = 0;
+
+        for (PathIterator iter = outline.getPathIterator(null, FLATNESS); !iter.isDone(); iter.next())
+        {
+            int type = iter.currentSegment(coords);
+            if (type == PathIterator.SEG_MOVETO)
+            {
+                moveX = coords[0];
+                moveY = coords[1];
+                subpaths = addIndex(subpaths, subpathCount++, count);
+            }
+            else if (type == PathIterator.SEG_CLOSE)
+            {
+                subpaths = addIndex(subpaths, subpathCount++, -1);
+            }
+            else if (subpathCount > 0 && subpaths[subpathCount - 1] < 0)
+            {
+                // A line that follows a close starts from the point where the closed subpath started
+                subpaths[subpathCount - 1] = count;
+                pts = addPoint(pts, count, moveX, moveY);
+                count += 2;
+            }
+            if (type == PathIterator.SEG_MOVETO || type == PathIterator.SEG_LINETO)
+            {
+                pts = addPoint(pts, count, coords[0], coords[1]);
+                count += 2;
+                max = Math.max(max, coords[0] * coords[0] + coords[1] * coords[1]);
+            }
+        }
+        points = Arrays.copyOf(pts, count);
+        radius = Math.sqrt(max);
+
+        // Turn each subpath that has area into a ring
+        int[] verts = new int[count / 2];
+        int[] starts = new int[subpathCount];
+        int[] ends = new int[subpathCount];
+        int vertexCount = 0;
+        int ringCount = 0;
+        for (int k = 0; k < subpathCount; k++)
+        {
+            if (subpaths[k] >= 0)
+            {
+                int end = count;
+                for (int m = k + 1; m < subpathCount; m++)
+                {
+                    if (subpaths[m] >= 0)
+                    {
+                        end = subpaths[m];
+                        break;
+                    }
+                }
+                int n = 0;
+                for (int i = subpaths[k]; i < end; i += 2)
+                {
+                    verts[vertexCount + n++] = i;
+                }
+                n = removeSpikes(verts, vertexCount, n);
+                if (n >= 3 && Math.abs(signedArea(verts, vertexCount, vertexCount + n)) > MIN_AREA)
+                {
+                    starts[ringCount] = vertexCount;
+                    ends[ringCount] = vertexCount + n;
+                    ringCount++;
+                    vertexCount += n;
+                }
+            }
+        }
+        vertices = Arrays.copyOf(verts, vertexCount);
+        ringStarts = Arrays.copyOf(starts, ringCount);
+        ringEnds = Arrays.copyOf(ends, ringCount);
+        convex = ringCount == 1 && isConvex();
+    }
+
+    /**
+     * Stores (x,y) at index count of pts, first making pts bigger if it is full. Returns pts or its replacement.
+     */
+    private static double[] addPoint (double[] pts, int count, double x, double y)
+    {
+        if (count == pts.length)
+        {
+            pts = Arrays.copyOf(pts, 2 * count);
+        }
+        pts[count] = x;
+        pts[count + 1] = y;
+        return pts;
+    }
+
+    /**
+     * Stores value at the given index of array, first making the array bigger if it is full. Returns array or its
+     * replacement.
+     */
+    private static int[] addIndex (int[] array, int index, int value)
+    {
+        if (index == array.length)
+        {
+            array = Arrays.copyOf(array, 2 * index);
+        }
+        array[index] = value;
+        return array;
+    }
+
+    /**
+     * Removes, from the n vertices of a closed polygon that start at index start of verts, every vertex that repeats
+     * the one before it or where the polygon doubles straight back on itself. Those parts of an outline enclose no
+     * area, so Area ignores them. Returns the number of vertices that remain.
+     */
+    private int removeSpikes (int[] verts, int start, int n)
+    {
+        boolean changed = true;
+        while (changed && n >= 3)
+        {
+            changed = false;
+            for (int k = 0; k < n; k++)
+            {
+                int a = verts[start + (k + n - 1) % n];
+                int b = verts[start + k];
+                int c = verts[start + (k + 1) % n];
+                double ux = points[b] - points[a];
+                double uy = points[b + 1] - points[a + 1];
+                double vx = points[c] - points[b];
+                double vy = points[c + 1] - points[b + 1];
+                if ((ux == 0 && uy == 0) || (ux * vy - uy * vx == 0 && ux * vx + uy * vy <= 0))
+                {
+                    System.arraycopy(verts, start + k + 1, verts, start + k, n - k - 1);
+                    n--;
+                    changed = true;
+                    break;
+                }
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Returns the signed area of the closed polygon whose vertices are at indexes start up to end of verts.
+     */
+    private double signedArea (int[] verts, int start, int end)
+    {
+        double sum = 0;
+        for (int k = start, m = end - 1; k < end; m = k, k++)
+        {
+            int i = verts[k];
+            int j = verts[m];
+            sum += points[j] * points[i + 1] - points[i] * points[j + 1];
+        }
+        return sum / 2;
+    }
+
+    /**
+     * Reports whether the first ring is convex. A convex polygon turns the same way at every vertex and goes around
+     * exactly once.
+     */
+    private boolean isConvex ()
+    {
+        int start = ringStarts[0];
+        int n = ringEnds[0] - start;
+        int sign = 0;
+        double turning = 0;
+        for (int k = 0; k < n; k++)
+        {
+            int a = vertices[start + k];
+            int b = vertices[start + (k + 1) % n];
+            int c = vertices[start + (k + 2) % n];
+            double ux = points[b] - points[a];
+            double uy = points[b + 1] - points[a + 1];
+            double vx = points[c] - points[b];
+            double vy = points[c + 1] - points[b + 1];
+            double cross = ux * vy - uy * vx;
+            if (cross != 0)
+            {
+                int s = cross > 0 ? 1 : -1;
+                if (sign != 0 && s != sign)
+                {
+                    return false;
+                }
+                sign = s;
+            }
+            turning += Math.atan2(cross, ux * vx + uy * vy);
+        }
+        return sign != 0 && Math.abs(Math.abs(turning) - 2 * Math.PI) < 1e-6;
+    }
+
+    /**
+     * Returns the distance from (0,0) to the farthest point of the outline. This is the radius of a circle, centered on
+     * the Participant, that contains the outline no matter how it is rotated.
+     */
+    public double getRadius ()
+    {
+        return radius;
+    }
+
+    /**
+     * Returns the length of the coordinate array that transform() fills in.
+     */
+    public int getCoordinateCount ()
+    {
+        return points.length;
+    }
+
+    /**
+     * Transforms every point of the outline with trans and stores the resulting coordinates into dest.
+     */
+    public void transform (AffineTransform trans, double[] dest)
+    {
+        trans.transform(points, 0, dest, 0, points.length / 2);
+    }
+
+    /**
+     * Reports whether polygon a, whose transformed coordinates are aPts, overlaps polygon b, whose transformed
+     * coordinates are bPts.
+     */
+    public static boolean overlaps (CollisionPolygon a, double[] aPts, CollisionPolygon b, double[] bPts)
+    {
+        if (a.ringStarts.length == 0 || b.ringStarts.length == 0)
+        {
+            return false;
+        }
+        if (a.convex && b.convex)
+        {
+            return !separated(a, aPts, b, bPts) && !separated(b, bPts, a, aPts);
+        }
+        return edgesCross(a, aPts, b, bPts) || hasVertexInside(a, aPts, b, bPts) || hasVertexInside(b, bPts, a, aPts);
+    }
+
+    /**
+     * Reports whether one of the edge normals of convex polygon a separates it from convex polygon b.
+     */
+    private static boolean separated (CollisionPolygon a, double[] aPts, CollisionPolygon b, double[] bPts)
+    {
+        int start = a.ringStarts[0];
+        int end = a.ringEnds[0];
+        for (int k = start, m = end - 1; k < end; m = k, k++)
+        {
+            int i = a.vertices[k];
+            int j = a.vertices[m];
+            double nx = aPts[j + 1] - aPts[i + 1];
+            double ny = aPts[i] - aPts[j];
+            double aMin = Double.POSITIVE_INFINITY, aMax = Double.NEGATIVE_INFINITY;
+            for (int v = start; v < end; v++)
+            {
+                double d = nx * aPts[a.vertices[v]] + ny * aPts[a.vertices[v] + 1];
+                aMin = Math.min(aMin, d);
+                aMax = Math.max(aMax, d);
+            }
+            double bMin = Double.POSITIVE_INFINITY, bMax = Double.NEGATIVE_INFINITY;
+            for (int v = b.ringStarts[0]; v < b.ringEnds[0]; v++)
+            {
+                double d = nx * bPts[b.vertices[v]] + ny * bPts[b.vertices[v] + 1];
+                bMin = Math.min(bMin, d);
+                bMax = Math.max(bMax, d);
+            }
+            if (aMax <= bMin || bMax <= aMin)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reports whether an edge of a properly crosses an edge of b.
+     */
+    private static boolean edgesCross (CollisionPolygon a, double[] aPts, CollisionPolygon b, double[] bPts)
+    {
+        for (int r = 0; r < a.ringStarts.length; r++)
+        {
+            for (int k = a.ringStarts[r], m = a.ringEnds[r] - 1; k < a.ringEnds[r]; m = k, k++)
+            {
+                int i = a.vertices[k];
+                int j = a.vertices[m];
+                if (crossesEdge(aPts[j], aPts[j + 1], aPts[i], aPts[i + 1], b, bPts))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reports whether the segment from (x1,y1) to (x2,y2) properly crosses an edge of polygon b, whose transformed
+     * coordinates are bPts.
+     */
+    static boolean crossesEdge (double x1, double y1, double x2, double y2, CollisionPolygon b, double[] bPts)
+    {
+        for (int r = 0; r < b.ringStarts.length; r++)
+        {
+            for (int k = b.ringStarts[r], m = b.ringEnds[r] - 1; k < b.ringEnds[r]; m = k, k++)
+            {
+                int i = b.vertices[k];
+                int j = b.vertices[m];
+                double x3 = bPts[j], y3 = bPts[j + 1];
+                double x4 = bPts[i], y4 = bPts[i + 1];
+                double d1 = orient(x3, y3, x4, y4, x1, y1);
+                double d2 = orient(x3, y3, x4, y4, x2, y2);
+                if ((d1 > 0 && d2 < 0) || (d1 < 0 && d2 > 0))
+                {
+                    double d3 = orient(x1, y1, x2, y2, x3, y3);
+                    double d4 = orient(x1, y1, x2, y2, x4, y4);
+                    if ((d3 > 0 && d4 < 0) || (d3 < 0 && d4 > 0))
+                    {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a positive number if (px,py) is to the left of the line from (x1,y1) to (x2,y2), a negative number if it
+     * is to the right, and zero if it is on the line.
+     */
+    private static double orient (double x1, double y1, double x2, double y2, double px, double py)
+    {
+        return (x2 - x1) * (py - y1) - (y2 - y1) * (px - x1);
+    }
+
+    /**
+     * Reports whether a vertex of one of a's rings lies inside b.
+     */
+    private static boolean hasVertexInside (CollisionPolygon a, double[] aPts, CollisionPolygon b, double[] bPts)
+    {
+        for (int k = 0; k < a.vertices.length; k++)
+        {
+            int i = a.vertices[k];
+            if (contains(b, bPts, aPts[i], aPts[i + 1]))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reports whether (px,py) is inside polygon b, whose transformed coordinates are bPts, using the nonzero winding
+     * rule.
+     */
+    static boolean contains (CollisionPolygon b, double[] bPts, double px, double py)
+    {
+        int winding = 0;
+        for (int r = 0; r < b.ringStarts.length; r++)
+        {
+            for (int k = b.ringStarts[r], m = b.ringEnds[r] - 1; k < b.ringEnds[r]; m = k, k++)
+            {
+                int i = b.vertices[k];
+                int j = b.vertices[m];
+                double x1 = bPts[j], y1 = bPts[j + 1];
+                double x2 = bPts[i], y2 = bPts[i + 1];
+                if (y1 <= py)
+                {
+                    if (y2 > py && orient(x1, y1, x2, y2, px, py) > 0)
+                    {
+                        winding++;
+                    }
+                }
+                else if (y2 <= py && orient(x1, y1, x2, y2, px, py) < 0)
+                {
+                    winding--;
+                }
+            }
+        }
+        return winding != 0;
+    }
+}
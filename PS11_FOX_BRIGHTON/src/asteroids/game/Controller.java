@@ -3,16 +3,29 @@ package asteroids.game;
 import static asteroids.game.Constants.*;
 import java.awt.event.*;
 import java.io.BufferedInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.Clip;
 import javax.sound.sampled.LineUnavailableException;
 import javax.sound.sampled.UnsupportedAudioFileException;
 import javax.swing.*;
+import asteroids.events.ClipStartEvent;
+import asteroids.events.FrameEvent;
+import asteroids.events.GameEvents;
+import asteroids.events.LevelTransitionEvent;
 import asteroids.participants.AlienShip;
 import asteroids.participants.Asteroid;
+import asteroids.participants.AlienBullet;
 import asteroids.participants.Bullet;
+import asteroids.participants.Debris;
 import asteroids.participants.EnhancedAlienShip;
 import asteroids.participants.EnhancedBullet;
 import asteroids.participants.EnhancedForceField;
@@ -25,6 +38,29 @@ import asteroids.participants.Ship;
  */
 public class Controller implements KeyListener, ActionListener, Iterable<Participant>
 {
+    /** Bit of the input mask that is set while the fire key is down */
+    public static final int INPUT_FIRE = 1;
+
+    /** Bit of the input mask that is set while the turn right key is down */
+    public static final int INPUT_RIGHT = 2;
+
+    /** Bit of the input mask that is set while the turn left key is down */
+    public static final int INPUT_LEFT = 4;
+
+    /** Bit of the input mask that is set while the thrust key is down */
+    public static final int INPUT_THRUST = 8;
+
+    /** Bit of a recorded input mask that is set on a frame just before which a new game was started */
+    public static final int INPUT_START = 16;
+
+    /** First four bytes of a saved state */
+    private static final int SAVE_FORMAT = 0x41535401;
+
+    /** The kinds of Participant that can be saved. A saved Participant's kind is its index in this array. */
+    private static final Class<?>[] SAVED_TYPES = { Asteroid.class, Ship.class, EnhancedShip.class, Bullet.class,
+            EnhancedBullet.class, AlienShip.class, EnhancedAlienShip.class, AlienBullet.class, Debris.class,
+            EnhancedPowerUp.class, EnhancedForceField.class };
+
     private String version;
 
     /** The state of all the Participants */
@@ -33,16 +69,49 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
     /** The ship (if one is active) or null (otherwise) */
     private Ship ship;
 
-    /** When this timer goes off, it is time to refresh the animation */
+    /** When this timer goes off, it is time to refresh the animation (unless the game loop is used instead) */
     private Timer refreshTimer;
 
+    /** If non-null, runs the frames on a thread of its own instead of refreshTimer */
+    private GameLoop loop;
+
+    /** What the participants looked like at the end of the most recent frame */
+    private volatile ParticipantSnapshot snapshot;
+
+    /** How regularly the frames have started */
+    private JitterStats jitter;
+
+    /** If non-null, where the time taken by each phase of each frame is recorded */
+    private volatile FrameMetrics metrics;
+
+    /** True if the game has no window and no sound, and its frames are run by calling tick() */
+    private boolean headless;
+
+    /** The seed that random was created with */
+    private long seed;
+
+    /** Source of all of the game's random numbers, so that a game can be played again from its seed */
+    private GameRandom random;
+
+    /** If non-null, the input and checksum of every frame is added to this */
+    private Replay recording;
+
+    /** If non-null, the recording is saved here whenever a game ends */
+    private File recordingFile;
+
+    /** True if a new game has been started since the last frame was recorded */
+    private boolean startRecorded;
+
+    /** If non-null, the input of every frame comes from this instead of from the keys */
+    private Replay.Player playback;
+
     /** When this timer goes off, it is time to spawn an alien ship **/
-    private Timer alienShipSpawnTimer;
+    private TickTimer alienShipSpawnTimer;
 
     /**
-     * The time at which a transition to a new stage of the game should be made. A transition is scheduled a few seconds
-     * in the future to give the user time to see what has happened before doing something like going to a new level or
-     * resetting the current level.
+     * The frame (as counted by the TimingWheel) at which a transition to a new stage of the game should be made. A
+     * transition is scheduled a few seconds in the future to give the user time to see what has happened before doing
+     * something like going to a new level or resetting the current level.
      */
     private long transitionTime;
 
@@ -50,22 +119,19 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
     private int lives;
 
     /** The game display */
-    private Display display;
+    private Renderer display;
 
     /** number of bullets on screen */
     private int bulletCount = 0;
 
-    /** Status of right key */
-    private boolean rightPressed;
-
-    /** Status of left key */
-    private boolean leftPressed;
-
-    /** Status of up key */
-    private boolean upPressed;
+    /**
+     * Which of the keys of interest are down, as INPUT_ bits. Key events set and clear the bits, and each frame reads
+     * them, so this is how input gets from the Swing event thread to the game loop's thread.
+     */
+    private final AtomicInteger input = new AtomicInteger();
 
-    /** Status of space bar */
-    private boolean spacePressed;
+    /** The input mask as of the previous frame */
+    private int previousInput;
 
     /** Current 'level' of game */
     private int level;
@@ -109,8 +175,11 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
     /** sound file for background music */
     private Clip beat2Clip;
 
+    /** The sound file that each clip plays, for the flight recorder's events */
+    private final Map<Clip, String> clipNames = new IdentityHashMap<>();
+
     /** timer for background music */
-    private Timer beatTimer;
+    private TickTimer beatTimer;
 
     /** enhanced version extra life reward memory */
     private int enhancedExtraLifeReward;
@@ -122,30 +191,100 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
     private EnhancedPowerUp enhancedPowerUp;
 
     /** enhanced version power up spawn timer */
-    private Timer enhancedPowerUpSpawnTimer;
+    private TickTimer enhancedPowerUpSpawnTimer;
 
     /** enhanced version bullet time powerup */
     private boolean enhancedBulletTime;
 
     /** enhanced version bullet time powerup timer */
-    private Timer enhancedBulletTimeTimer;
+    private TickTimer enhancedBulletTimeTimer;
 
     /** enhanced version force field powerup timer */
-    private Timer enhancedForceFieldTimer;
+    private TickTimer enhancedForceFieldTimer;
 
     /** enhanced version double score powerup */
     private boolean enhancedDoubleScore;
 
     /** enhanced version double score powerup timer */
-    private Timer enhancedDoubleScoreTimer;
+    private TickTimer enhancedDoubleScoreTimer;
 
     /** enhanced version force field object */
     private EnhancedForceField forceField;
 
+    /** The participants being restored from a saved state, in the order they were saved */
+    private Participant[] restored = new Participant[0];
+
     /**
      * Constructs a controller to coordinate the game and screen
      */
     public Controller (int version)
+    {
+        this(version, false);
+    }
+
+    /**
+     * Constructs a controller to coordinate the game and screen. If useGameLoop is true, the frames are run at a fixed
+     * rate on a thread of their own instead of by a Swing timer.
+     */
+    public Controller (int version, boolean useGameLoop)
+    {
+        this(version, useGameLoop, false, new Random().nextLong(), null, false);
+    }
+
+    /**
+     * Constructs a controller to coordinate the game and screen, and records everything the player does so that the
+     * game can be played back. If file is non-null, the recording is saved there whenever a game ends.
+     */
+    public static Controller createRecording (int version, boolean useGameLoop, File file)
+    {
+        Controller controller = new Controller(version, useGameLoop, false, new Random().nextLong(), null, true);
+        controller.recordingFile = file;
+        return controller;
+    }
+
+    /**
+     * Constructs a controller that has no window and makes no sound. Nothing happens until the program that created it
+     * calls tick(), which runs a frame as fast as it can. The game plays just the same, with game time counted in
+     * frames.
+     */
+    public static Controller createHeadless (int version)
+    {
+        return createHeadless(version, new Random().nextLong());
+    }
+
+    /**
+     * Constructs a headless controller whose random numbers come from the given seed. Two such controllers with the
+     * same version and seed, given the same input on every frame, play exactly the same game.
+     */
+    public static Controller createHeadless (int version, long seed)
+    {
+        return new Controller(version, false, true, seed, null, false);
+    }
+
+    /**
+     * Constructs a headless controller, like createHeadless, that records its input as it is played.
+     */
+    public static Controller createHeadlessRecording (int version, long seed)
+    {
+        return new Controller(version, false, true, seed, null, true);
+    }
+
+    /**
+     * Constructs a controller that plays back a recorded game, ignoring the keyboard and the start button. If headless
+     * is true, the frames are run by calling tick() (as fast as the caller likes) instead of in real time in a window.
+     */
+    public static Controller createReplay (Replay replay, boolean headless)
+    {
+        return new Controller(replay.getVersion(), false, headless, replay.getSeed(), replay, false);
+    }
+
+    /**
+     * Constructs a controller. If headless is true, there is no window, no sound, and no timer or thread to run the
+     * frames. Otherwise, if useGameLoop is true, the frames are run on a thread of their own instead of by a Swing
+     * timer. The game's random numbers come from the seed. If replay is non-null, its input is played back; otherwise,
+     * if record is true, the input is recorded.
+     */
+    private Controller (int version, boolean useGameLoop, boolean headless, long seed, Replay replay, boolean record)
     {
         // Set game type
         if (version == 1)
@@ -156,45 +295,80 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
         {
             this.version = "Classic";
         }
+        this.headless = headless;
+        this.seed = seed;
+        random = new GameRandom(seed);
+        if (replay != null)
+        {
+            playback = replay.new Player();
+        }
+        else if (record)
+        {
+            recording = new Replay(version, seed);
+        }
 
         // Initialize the ParticipantState
         pstate = new ParticipantState();
 
-        // Set up the refresh timer.
-        refreshTimer = new Timer(FRAME_INTERVAL, this);
+        // Set up the refresh timer or the game loop.
+        snapshot = ParticipantSnapshot.EMPTY;
+        if (useGameLoop && !headless)
+        {
+            loop = new GameLoop(this::frame, FRAME_INTERVAL);
+            jitter = loop.getJitter();
+        }
+        else if (!headless)
+        {
+            refreshTimer = new Timer(FRAME_INTERVAL, this);
+            jitter = new JitterStats(FRAME_INTERVAL);
+        }
+        else
+        {
+            jitter = new JitterStats(FRAME_INTERVAL);
+        }
 
         // Set up the alienship spawn timer
-        alienShipSpawnTimer = new Timer(RANDOM.nextInt(5001) + 5000, this);
+        alienShipSpawnTimer = newTimer(null, random.nextInt(5001) + 5000);
 
         // Set up background music
-        beatTimer = new Timer(1000, this);
+        beatTimer = newTimer(null, 1000);
         beatSwitch = 0;
 
         // Clear the transitionTime
         transitionTime = Long.MAX_VALUE;
 
         // Record the display object
-        display = new Display(this);
+        if (headless)
+        {
+            display = new NullRenderer();
+        }
+        else
+        {
+            Display window = new Display(this);
+            window.setVisible(true);
+            display = window;
+        }
 
         // Bring up the splash screen and start the timers
         splashScreen();
-        display.setVisible(true);
-        refreshTimer.start();
         alienShipSpawnTimer.start();
         beatTimer.start();
 
-        // stores sound files in prepared variables
-        fireClip = createClip("/sounds/fire.wav");
-        thrustClip = createClip("/sounds/thrust.wav");
-        beat1Clip = createClip("/sounds/beat1.wav");
-        beat2Clip = createClip("/sounds/beat2.wav");
-        bangShipClip = createClip("/sounds/bangShip.wav");
-        bangSmallClip = createClip("/sounds/bangSmall.wav");
-        bangMediumClip = createClip("/sounds/bangMedium.wav");
-        bangLargeClip = createClip("/sounds/bangLarge.wav");
-        saucerBigClip = createClip("/sounds/saucerBig.wav");
-        saucerSmallClip = createClip("/sounds/saucerSmall.wav");
-        bangAlienShipClip = createClip("/sounds/bangAlienShip.wav");
+        // stores sound files in prepared variables (a headless game has none, so it plays nothing)
+        if (!headless)
+        {
+            fireClip = createClip("/sounds/fire.wav");
+            thrustClip = createClip("/sounds/thrust.wav");
+            beat1Clip = createClip("/sounds/beat1.wav");
+            beat2Clip = createClip("/sounds/beat2.wav");
+            bangShipClip = createClip("/sounds/bangShip.wav");
+            bangSmallClip = createClip("/sounds/bangSmall.wav");
+            bangMediumClip = createClip("/sounds/bangMedium.wav");
+            bangLargeClip = createClip("/sounds/bangLarge.wav");
+            saucerBigClip = createClip("/sounds/saucerBig.wav");
+            saucerSmallClip = createClip("/sounds/saucerSmall.wav");
+            bangAlienShipClip = createClip("/sounds/bangAlienShip.wav");
+        }
 
         // Set Up enhanced version
         if (version == 1)
@@ -202,9 +376,542 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
             enhancedHiScore = 0;
 
             // Set up powerup spawn system
-            enhancedPowerUpSpawnTimer = new Timer(RANDOM.nextInt(5001) + 7000, this);
+            enhancedPowerUpSpawnTimer = newTimer(null, random.nextInt(5001) + 7000);
             enhancedPowerUpSpawnTimer.start();
         }
+
+        // Start running frames, now that everything is ready for them
+        if (loop != null)
+        {
+            loop.start();
+        }
+        else if (!headless)
+        {
+            refreshTimer.start();
+        }
+    }
+
+    /**
+     * Returns the seed that the game's random numbers come from.
+     */
+    public long getSeed ()
+    {
+        return seed;
+    }
+
+    /**
+     * Returns the recording of the game so far, or null if it isn't being recorded.
+     */
+    public Replay getRecording ()
+    {
+        return recording;
+    }
+
+    /**
+     * Returns the first frame at which a replayed game differed from the recording, or -1 if it hasn't (or isn't a
+     * replay).
+     */
+    public int getDivergence ()
+    {
+        return (playback != null) ? playback.getDivergence() : -1;
+    }
+
+    /**
+     * Reports whether this is a replay that has played all of its recorded frames.
+     */
+    public boolean isReplayFinished ()
+    {
+        return playback != null && !playback.hasNext();
+    }
+
+    /**
+     * Returns a hash of the state of the game: the participants, the random number generator, and the statistics.
+     * Games that have the same checksum after every frame are playing out the same way.
+     */
+    public long checksum ()
+    {
+        long h = pstate.checksum();
+        h = ParticipantState.mix(h, random.getState());
+        h = ParticipantState.mix(h, score);
+        h = ParticipantState.mix(h, lives);
+        h = ParticipantState.mix(h, level);
+        return ParticipantState.mix(h, bulletCount);
+    }
+
+    /**
+     * Writes the state of the game to the buffer: the participants, their countdowns, the game's timers, the random
+     * number generator, and the statistics. Restoring it with restoreState puts the game back exactly as it was, which
+     * makes save-states and rewinding possible. This must be done between frames, on the thread that runs them. If
+     * the buffer is too small, a java.nio.BufferOverflowException is thrown.
+     */
+    public void saveState (ByteBuffer out)
+    {
+        TimingWheel wheel = pstate.getTimingWheel();
+        out.putInt(SAVE_FORMAT);
+        out.put((byte) (version.equals("Enhanced") ? 1 : 0));
+        out.putLong(wheel.getTick());
+        out.putLong(random.getState());
+
+        // Statistics and power-ups
+        out.putInt(score);
+        out.putInt(lives);
+        out.putInt(level);
+        out.putInt(bulletCount);
+        out.putInt(beatSwitch);
+        out.putInt(previousInput);
+        out.putLong(transitionTime);
+        out.putInt(enhancedExtraLifeReward);
+        out.putInt(enhancedHiScore);
+        out.put((byte) ((enhancedBulletTime ? 1 : 0) | (enhancedDoubleScore ? 2 : 0)));
+
+        // The participants in the game, then those waiting to be added
+        int active = pstate.getCount();
+        int pending = pstate.getPendingCount();
+        out.putInt(active);
+        out.putInt(pending);
+        for (int i = 0; i < active + pending; i++)
+        {
+            Participant p = (i < active) ? pstate.getParticipant(i) : pstate.getPendingParticipant(i - active);
+            p.saveIndex = i;
+            writeParticipant(out, p);
+        }
+        out.putInt(saveIndexOf(ship));
+        out.putInt(saveIndexOf(enhancedPowerUp));
+        out.putInt(saveIndexOf(forceField));
+
+        // The intervals of the game's timers, then everything that is scheduled, ending with -1
+        out.putInt(ticksOf(alienShipSpawnTimer));
+        out.putInt(ticksOf(beatTimer));
+        out.putInt(ticksOf(enhancedPowerUpSpawnTimer));
+        out.putInt(ticksOf(enhancedBulletTimeTimer));
+        out.putInt(ticksOf(enhancedForceFieldTimer));
+        out.putInt(ticksOf(enhancedDoubleScoreTimer));
+        wheel.forEachScheduled(e -> writeEntry(out, e));
+        out.put((byte) -1);
+    }
+
+    /**
+     * Puts the game back into a state that was written by saveState, leaving the buffer positioned after it. This
+     * must be done between frames, on the thread that runs them.
+     */
+    public void restoreState (ByteBuffer in)
+    {
+        if (in.getInt() != SAVE_FORMAT)
+        {
+            throw new IllegalArgumentException("Not a saved Asteroids game");
+        }
+        if (in.get() != (version.equals("Enhanced") ? 1 : 0))
+        {
+            throw new IllegalArgumentException("The game was saved from the other version of Asteroids");
+        }
+        TimingWheel wheel = pstate.getTimingWheel();
+        pstate.clear();
+        wheel.reset(in.getLong());
+
+        // The random number generator is restored last, since the participants' constructors use it
+        long randomState = in.getLong();
+
+        // Statistics and power-ups
+        score = in.getInt();
+        lives = in.getInt();
+        level = in.getInt();
+        bulletCount = in.getInt();
+        beatSwitch = in.getInt();
+        previousInput = in.getInt();
+        transitionTime = in.getLong();
+        enhancedExtraLifeReward = in.getInt();
+        enhancedHiScore = in.getInt();
+        int flags = in.get();
+        enhancedBulletTime = (flags & 1) != 0;
+        enhancedDoubleScore = (flags & 2) != 0;
+
+        // The participants
+        int active = in.getInt();
+        int pending = in.getInt();
+        if (restored.length < active + pending)
+        {
+            restored = new Participant[active + pending];
+        }
+        for (int i = 0; i < active + pending; i++)
+        {
+            Participant p = readParticipant(in);
+            restored[i] = p;
+            if (i < active)
+            {
+                pstate.restoreParticipant(p);
+            }
+            else
+            {
+                pstate.addParticipant(p);
+            }
+        }
+        ship = (Ship) restoredAt(in.getInt());
+        enhancedPowerUp = (EnhancedPowerUp) restoredAt(in.getInt());
+        forceField = (EnhancedForceField) restoredAt(in.getInt());
+
+        // The timers
+        alienShipSpawnTimer = readTimer(in);
+        beatTimer = readTimer(in);
+        enhancedPowerUpSpawnTimer = readTimer(in);
+        enhancedBulletTimeTimer = readTimer(in);
+        enhancedForceFieldTimer = readTimer(in);
+        enhancedDoubleScoreTimer = readTimer(in);
+        for (int kind = in.get(); kind >= 0; kind = in.get())
+        {
+            readEntry(in, kind);
+        }
+        Arrays.fill(restored, 0, active + pending, null);
+        random.setState(randomState);
+
+        // Show the restored game
+        display.setLives(lives);
+        display.setLevel(level);
+        display.setScore(score);
+        if (!headless)
+        {
+            snapshot = new ParticipantSnapshot(pstate);
+        }
+        display.refresh();
+    }
+
+    /**
+     * Writes the kind of p, followed by what its constructor needs and then its state.
+     */
+    private void writeParticipant (ByteBuffer out, Participant p)
+    {
+        int kind = 0;
+        while (kind < SAVED_TYPES.length && SAVED_TYPES[kind] != p.getClass())
+        {
+            kind++;
+        }
+        if (kind == SAVED_TYPES.length)
+        {
+            throw new IllegalStateException("Can't save a " + p.getClass().getName());
+        }
+        out.put((byte) kind);
+        if (p instanceof Asteroid)
+        {
+            out.put((byte) ((Asteroid) p).getVariety());
+            out.put((byte) ((Asteroid) p).getSize());
+        }
+        else if (p instanceof AlienShip)
+        {
+            out.put((byte) ((AlienShip) p).getSize());
+        }
+        else if (p instanceof Debris)
+        {
+            out.put((byte) ((Debris) p).getSize());
+        }
+        else if (p instanceof EnhancedPowerUp)
+        {
+            out.put((byte) ((EnhancedPowerUp) p).getPowerUpType());
+        }
+        p.save(out);
+    }
+
+    /**
+     * Reads a participant written by writeParticipant. Its countdowns are restored separately.
+     */
+    private Participant readParticipant (ByteBuffer in)
+    {
+        Participant p;
+        switch (in.get())
+        {
+            case 0:
+                p = new Asteroid(in.get(), in.get(), 0, 0, this);
+                break;
+            case 1:
+                p = new Ship(0, 0, 0, this);
+                break;
+            case 2:
+                p = new EnhancedShip(0, 0, 0, this);
+                break;
+            case 3:
+                p = new Bullet(0, 0, 0, this);
+                break;
+            case 4:
+                p = new EnhancedBullet(0, 0, 0, this);
+                break;
+            case 5:
+                p = new AlienShip(in.get(), this);
+                break;
+            case 6:
+                p = new EnhancedAlienShip(in.get(), this);
+                break;
+            case 7:
+                p = new AlienBullet(0, 0, 0, this);
+                break;
+            case 8:
+                p = new Debris(0, 0, in.get(), random);
+                break;
+            case 9:
+                p = new EnhancedPowerUp(in.get(), 0, 0, this);
+                break;
+            case 10:
+                p = new EnhancedForceField(0, 0, this);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown kind of participant in saved game");
+        }
+        p.clearWaitingTimers();
+        p.restore(in);
+        return p;
+    }
+
+    /**
+     * Returns where p was saved, or -1 if it is null or expired.
+     */
+    private static int saveIndexOf (Participant p)
+    {
+        return (p == null || p.isExpired()) ? -1 : p.saveIndex;
+    }
+
+    /**
+     * Returns the participant that was restored from the given index, or null if the index is -1.
+     */
+    private Participant restoredAt (int index)
+    {
+        return (index < 0) ? null : restored[index];
+    }
+
+    /**
+     * Returns the interval of the timer, or 0 if it is null.
+     */
+    private static int ticksOf (TickTimer timer)
+    {
+        return (timer == null) ? 0 : timer.getTicks();
+    }
+
+    /**
+     * Reads an interval written by ticksOf and returns a stopped timer with that interval, or null if it is 0.
+     */
+    private TickTimer readTimer (ByteBuffer in)
+    {
+        int ticks = in.getInt();
+        return (ticks == 0) ? null : TickTimer.ofTicks(pstate.getTimingWheel(), ticks, this);
+    }
+
+    /**
+     * Writes an entry of the TimingWheel: which timer it is and when it is due. Countdowns of participants that have
+     * expired (or expired and been reused since) are left out, since they won't do anything.
+     */
+    private void writeEntry (ByteBuffer out, TimingWheel.Entry e)
+    {
+        if (e instanceof ParticipantCountdownTimer)
+        {
+            ParticipantCountdownTimer t = (ParticipantCountdownTimer) e;
+            Participant p = t.getParticipant();
+            if (p.isExpired() || !t.isCurrent())
+            {
+                return;
+            }
+            out.put((byte) 0);
+            out.putInt(p.saveIndex);
+            out.putInt(t.getTicks());
+            Object payload = t.getPayload();
+            if (payload == null)
+            {
+                out.put((byte) 0);
+            }
+            else if (payload == p)
+            {
+                out.put((byte) 1);
+            }
+            else if (payload instanceof String)
+            {
+                String text = (String) payload;
+                out.put((byte) 2);
+                out.put((byte) text.length());
+                for (int i = 0; i < text.length(); i++)
+                {
+                    out.put((byte) text.charAt(i));
+                }
+            }
+            else
+            {
+                throw new IllegalStateException("Can't save a countdown whose payload is a " + payload.getClass());
+            }
+        }
+        else if (e == alienShipSpawnTimer)
+        {
+            out.put((byte) 1);
+        }
+        else if (e == beatTimer)
+        {
+            out.put((byte) 2);
+        }
+        else if (e == enhancedPowerUpSpawnTimer)
+        {
+            out.put((byte) 3);
+        }
+        else if (e == enhancedBulletTimeTimer)
+        {
+            out.put((byte) 4);
+        }
+        else if (e == enhancedForceFieldTimer)
+        {
+            out.put((byte) 5);
+        }
+        else if (e == enhancedDoubleScoreTimer)
+        {
+            out.put((byte) 6);
+        }
+        else
+        {
+            throw new IllegalStateException("Can't save an unknown timer");
+        }
+        out.putInt((int) (e.getDeadline() - pstate.getTimingWheel().getTick()));
+    }
+
+    /**
+     * Reads an entry written by writeEntry, whose kind has already been read, and schedules it again.
+     */
+    private void readEntry (ByteBuffer in, int kind)
+    {
+        TimingWheel.Entry e;
+        switch (kind)
+        {
+            case 0:
+                Participant p = restored[in.getInt()];
+                int ticks = in.getInt();
+                Object payload = null;
+                int payloadKind = in.get();
+                if (payloadKind == 1)
+                {
+                    payload = p;
+                }
+                else if (payloadKind == 2)
+                {
+                    char[] text = new char[in.get()];
+                    for (int i = 0; i < text.length; i++)
+                    {
+                        text[i] = (char) in.get();
+                    }
+                    payload = new String(text);
+                }
+                e = ParticipantCountdownTimer.restore(p, payload, ticks);
+                break;
+            case 1:
+                e = alienShipSpawnTimer;
+                break;
+            case 2:
+                e = beatTimer;
+                break;
+            case 3:
+                e = enhancedPowerUpSpawnTimer;
+                break;
+            case 4:
+                e = enhancedBulletTimeTimer;
+                break;
+            case 5:
+                e = enhancedForceFieldTimer;
+                break;
+            case 6:
+                e = enhancedDoubleScoreTimer;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown kind of timer in saved game");
+        }
+        pstate.getTimingWheel().schedule(e, in.getInt());
+    }
+
+    /**
+     * Returns the source of the game's random numbers. Everything random in the game should come from here, and only
+     * from the thread that runs the frames.
+     */
+    public GameRandom getRandom ()
+    {
+        return random;
+    }
+
+    /**
+     * Returns the random number generator of the controller, or Constants.RANDOM if controller is null (as it is for
+     * participants that aren't part of a game, such as the ships that show the lives left).
+     */
+    public static Random randomOf (Controller controller)
+    {
+        return (controller != null) ? controller.random : RANDOM;
+    }
+
+    /**
+     * Returns a timer that, once started, goes off every msecs milliseconds of game time. If old is non-null, it is
+     * stopped and returned with the new interval rather than replaced, so that the spawn and power-up timers are not
+     * made anew every time they are reset.
+     */
+    private TickTimer newTimer (TickTimer old, int msecs)
+    {
+        if (old != null)
+        {
+            old.stop();
+            old.setDelay(msecs);
+            return old;
+        }
+        return new TickTimer(pstate.getTimingWheel(), msecs, this);
+    }
+
+    /**
+     * Runs one frame of a headless game.
+     */
+    public void tick ()
+    {
+        if (!headless)
+        {
+            throw new IllegalStateException("Only a headless Controller can be ticked");
+        }
+        frame();
+    }
+
+    /**
+     * Starts a new game, just as the start button does. In a headless game, this must be called before tick() can
+     * do much more than move the asteroids on the splash screen. A replay ignores this, since the recording says when
+     * to start.
+     */
+    public void startGame ()
+    {
+        if (playback != null)
+        {
+            return;
+        }
+        if (loop != null && !loop.isLoopThread())
+        {
+            loop.post(this::initialScreen);
+        }
+        else
+        {
+            initialScreen();
+        }
+    }
+
+    /**
+     * Sets which keys are down, as a combination of the INPUT_ bits. This is how a program plays a headless game.
+     */
+    public void setInput (int mask)
+    {
+        input.set(mask);
+    }
+
+    /**
+     * Returns the player's current score
+     */
+    public int getScore ()
+    {
+        return score;
+    }
+
+    /**
+     * Returns the current level
+     */
+    public int getLevel ()
+    {
+        return level;
+    }
+
+    /**
+     * Returns the number of lives left
+     */
+    public int getLives ()
+    {
+        return lives;
     }
 
     /**
@@ -217,6 +924,69 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
         return pstate.iterator();
     }
 
+    /**
+     * Returns a picture of the participants as of the end of the most recent frame. Unlike iterating over the
+     * Controller, this is safe to do while a frame is in progress.
+     */
+    public ParticipantSnapshot getSnapshot ()
+    {
+        return snapshot;
+    }
+
+    /**
+     * Takes a snapshot of the participants as they are now. A headless game doesn't take one each frame, since nothing
+     * draws it, so this is for programs that draw a headless game themselves.
+     */
+    public void takeSnapshot ()
+    {
+        snapshot = new ParticipantSnapshot(pstate);
+    }
+
+    /**
+     * Starts measuring the time taken by each phase of each frame, by painting, and by starting sound clips, and
+     * returns the measurements. Frames are measured from the next one to start on. Calling this again returns the same
+     * measurements.
+     */
+    public synchronized FrameMetrics enableMetrics ()
+    {
+        if (metrics == null)
+        {
+            metrics = new FrameMetrics();
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns the measurements of the frames, or null if enableMetrics() hasn't been called.
+     */
+    public FrameMetrics getMetrics ()
+    {
+        return metrics;
+    }
+
+    /**
+     * Returns the statistics about how regularly the frames have started.
+     */
+    public JitterStats getJitter ()
+    {
+        return jitter;
+    }
+
+    /**
+     * Runs code that touches Swing components. In game loop mode this is handed off to the Swing event thread.
+     */
+    private void onSwingThread (Runnable r)
+    {
+        if (headless || SwingUtilities.isEventDispatchThread())
+        {
+            r.run();
+        }
+        else
+        {
+            SwingUtilities.invokeLater(r);
+        }
+    }
+
     /**
      * Returns the ship, or null if there isn't one
      */
@@ -253,7 +1023,26 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
             }
         }
         display.setLegend(GAME_OVER);
-        display.removeKeyListener(this);
+        onSwingThread( () -> display.stopListening(this));
+        saveRecording();
+    }
+
+    /**
+     * Saves the recording, if there is one and it has somewhere to go.
+     */
+    private void saveRecording ()
+    {
+        if (recording != null && recordingFile != null)
+        {
+            try
+            {
+                recording.save(recordingFile);
+            }
+            catch (IOException e)
+            {
+                System.err.println("Could not save the recording to " + recordingFile + ": " + e);
+            }
+        }
     }
 
     /**
@@ -290,9 +1079,8 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
                 // loop "saucerBig" sound
                 loopClip(saucerBigClip);
 
-                alienShipSpawnTimer = new Timer(RANDOM.nextInt(5001) + 5000, this); // resets spawn timer to have
-                                                                                    // truly
-                                                                                    // random spawn times
+                // resets spawn timer to have truly random spawn times
+                alienShipSpawnTimer = newTimer(alienShipSpawnTimer, random.nextInt(5001) + 5000);
             }
             else if (level >= 3) // spawns small ship
             {
@@ -301,8 +1089,8 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
                 // loop "saucerSmall" sound
                 loopClip(saucerSmallClip);
 
-                alienShipSpawnTimer = new Timer(RANDOM.nextInt(5001) + 5000, this); // resets spawn timer to have
-                                                                                    // truly random spawn times
+                // resets spawn timer to have truly random spawn times
+                alienShipSpawnTimer = newTimer(alienShipSpawnTimer, random.nextInt(5001) + 5000);
             }
         }
 
@@ -315,9 +1103,8 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
                 // loop "saucerBig" sound
                 loopClip(saucerBigClip);
 
-                alienShipSpawnTimer = new Timer(RANDOM.nextInt(5001) + 5000, this); // resets spawn timer to have
-                                                                                    // truly
-                                                                                    // random spawn times
+                // resets spawn timer to have truly random spawn times
+                alienShipSpawnTimer = newTimer(alienShipSpawnTimer, random.nextInt(5001) + 5000);
             }
             else if (level >= 3) // spawns small ship
             {
@@ -326,9 +1113,8 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
                 // loop "saucerSmall" sound
                 loopClip(saucerSmallClip);
 
-                alienShipSpawnTimer = new Timer(RANDOM.nextInt(5001) + 5000, this); // resets spawn timer to have
-                                                                                    // truly
-                                                                                    // random spawn times
+                // resets spawn timer to have truly random spawn times
+                alienShipSpawnTimer = newTimer(alienShipSpawnTimer, random.nextInt(5001) + 5000);
             }
         }
     }
@@ -340,8 +1126,8 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
     {
         if (version.equals("Enhanced"))
         {
-            enhancedPowerUp = new EnhancedPowerUp(RANDOM.nextInt(3), SIZE * RANDOM.nextDouble(),
-                    SIZE * RANDOM.nextDouble(), this);
+            enhancedPowerUp = new EnhancedPowerUp(random.nextInt(3), SIZE * random.nextDouble(),
+                    SIZE * random.nextDouble(), this);
             enhancedPowerUpSpawnTimer.restart();
             addParticipant(enhancedPowerUp);
         }
@@ -358,12 +1144,12 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
             if (enhancedBulletTime)
             {
                 addParticipant(
-                        new EnhancedBullet((int) ship.getXNose(), (int) ship.getYNose(), ship.getRotation(), this));
+                        EnhancedBullet.create((int) ship.getXNose(), (int) ship.getYNose(), ship.getRotation(), this));
             }
             else
             {
                 bulletNumAdjust(1);
-                addParticipant(new Bullet((int) ship.getXNose(), (int) ship.getYNose(), ship.getRotation(), this));
+                addParticipant(Bullet.create((int) ship.getXNose(), (int) ship.getYNose(), ship.getRotation(), this));
             }
 
             // play "fire" sound
@@ -380,23 +1166,23 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
         {
             if (i % 4 == 0)
             {
-                addParticipant(new Asteroid(RANDOM.nextInt(4), 2, EDGE_OFFSET + RANDOM.nextInt(50) - 25,
-                        EDGE_OFFSET + RANDOM.nextInt(50) - 25, this));
+                addParticipant(Asteroid.create(random.nextInt(4), 2, EDGE_OFFSET + random.nextInt(50) - 25,
+                        EDGE_OFFSET + random.nextInt(50) - 25, this));
             }
             if (i % 4 == 1)
             {
-                addParticipant(new Asteroid(RANDOM.nextInt(4), 2, SIZE - EDGE_OFFSET + RANDOM.nextInt(50) - 25,
-                        EDGE_OFFSET + RANDOM.nextInt(50) - 25, this));
+                addParticipant(Asteroid.create(random.nextInt(4), 2, SIZE - EDGE_OFFSET + random.nextInt(50) - 25,
+                        EDGE_OFFSET + random.nextInt(50) - 25, this));
             }
             if (i % 4 == 2)
             {
-                addParticipant(new Asteroid(RANDOM.nextInt(4), 2, EDGE_OFFSET + RANDOM.nextInt(50) - 25,
-                        SIZE - EDGE_OFFSET + RANDOM.nextInt(50) - 25, this));
+                addParticipant(Asteroid.create(random.nextInt(4), 2, EDGE_OFFSET + random.nextInt(50) - 25,
+                        SIZE - EDGE_OFFSET + random.nextInt(50) - 25, this));
             }
             if (i % 4 == 3)
             {
-                addParticipant(new Asteroid(RANDOM.nextInt(4), 2, SIZE - EDGE_OFFSET + RANDOM.nextInt(50) - 25,
-                        SIZE - EDGE_OFFSET + RANDOM.nextInt(50) - 25, this));
+                addParticipant(Asteroid.create(random.nextInt(4), 2, SIZE - EDGE_OFFSET + random.nextInt(50) - 25,
+                        SIZE - EDGE_OFFSET + random.nextInt(50) - 25, this));
             }
         }
     }
@@ -434,12 +1220,11 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
         display.setLevel(level);
         display.setScore(score);
 
-        // Start listening to events (but don't listen twice)
-        display.removeKeyListener(this);
-        display.addKeyListener(this);
+        // Start listening to events (but don't listen twice), and give focus to the game screen
+        onSwingThread( () -> display.startListening(this));
 
-        // Give focus to the game screen
-        display.requestFocusInWindow();
+        // The next frame to be recorded is the first of the new game
+        startRecorded = true;
     }
 
     /**
@@ -447,11 +1232,13 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
      */
     private void nextLevel ()
     {
+        LevelTransitionEvent event = GameEvents.isEnabled() ? new LevelTransitionEvent() : null;
+
         clear(); // clears participants from screen
 
         // end looping sounds
-        saucerBigClip.stop();
-        saucerSmallClip.stop();
+        stopClip(saucerBigClip);
+        stopClip(saucerSmallClip);
 
         level++; // increments level
         display.setLevel(level); // sets new level
@@ -463,8 +1250,13 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
 
         alienShipSpawnTimer.start(); // to catch when a ship is still alive and a level increases
 
-        beatTimer = new Timer(1050 - 50 * level, this);
+        beatTimer = newTimer(beatTimer, 1050 - 50 * level);
         beatTimer.start();
+
+        if (event != null)
+        {
+            event.finish(level, score, lives);
+        }
     }
 
     /**
@@ -475,15 +1267,22 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
         pstate.addParticipant(p);
     }
 
+    /**
+     * Returns an expired participant of exactly the given class that can be set up again and added back to the game,
+     * or null if there are none.
+     */
+    public <T extends Participant> T reuse (Class<T> type)
+    {
+        return pstate.reuse(type);
+    }
+
     /**
      * The ship has been destroyed
      */
     public void shipDestroyed ()
     {
         // reset key statuses
-        rightPressed = false;
-        leftPressed = false;
-        upPressed = false;
+        input.getAndUpdate(m -> m & INPUT_FIRE);
 
         // Null out the ship
         ship = null;
@@ -517,16 +1316,16 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
         // creates two new asteroids of smaller size and plays appropriate sound
         if (a.getSize() == 2)
         {
-            addParticipant(new Asteroid((int) (Math.random() * 3), 1, a.getX(), a.getY(), this));
-            addParticipant(new Asteroid((int) (Math.random() * 3), 1, a.getX(), a.getY(), this));
+            addParticipant(Asteroid.create(random.nextInt(3), 1, a.getX(), a.getY(), this));
+            addParticipant(Asteroid.create(random.nextInt(3), 1, a.getX(), a.getY(), this));
 
             // play "bangLarge" sound
             playClip(bangLargeClip);
         }
         else if (a.getSize() == 1)
         {
-            addParticipant(new Asteroid((int) (Math.random() * 3), 0, a.getX(), a.getY(), this));
-            addParticipant(new Asteroid((int) (Math.random() * 3), 0, a.getX(), a.getY(), this));
+            addParticipant(Asteroid.create(random.nextInt(3), 0, a.getX(), a.getY(), this));
+            addParticipant(Asteroid.create(random.nextInt(3), 0, a.getX(), a.getY(), this));
 
             // play "bangMedium" sound
             playClip(bangMediumClip);
@@ -541,7 +1340,7 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
         Participant.expire(a);
 
         // If all the asteroids are gone, schedule a transition
-        if (countAsteroids() == 0)
+        if (pstate.count(Asteroid.class) == 0)
         {
             scheduleTransition(END_DELAY);
 
@@ -555,8 +1354,8 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
         scoreAdd(ALIENSHIP_SCORE[a.getSize()]);
 
         // stop alien sounds
-        saucerBigClip.stop();
-        saucerSmallClip.stop();
+        stopClip(saucerBigClip);
+        stopClip(saucerSmallClip);
 
         // play "bangAlienShip" sound
         playClip(bangAlienShipClip);
@@ -574,7 +1373,7 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
      */
     private void scheduleTransition (int m)
     {
-        transitionTime = System.currentTimeMillis() + m;
+        transitionTime = pstate.getTimingWheel().getTick() + TimingWheel.toTicks(m);
     }
 
     /**
@@ -583,11 +1382,21 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
     @Override
     public void actionPerformed (ActionEvent e)
     {
+        // In game loop mode, everything that changes the game happens on the loop's thread
+        if (loop != null && !loop.isLoopThread())
+        {
+            loop.post( () -> actionPerformed(e));
+            return;
+        }
+
         // The start button has been pressed. Stop whatever we're doing
         // and bring up the initial screen
         if (e.getSource() instanceof JButton)
         {
-            initialScreen();
+            if (playback == null)
+            {
+                initialScreen();
+            }
         }
 
         // Time to spawn in an alien ship
@@ -643,36 +1452,116 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
         // Time to refresh the screen and deal with keyboard input
         else if (e.getSource() == refreshTimer)
         {
-            // checks status of all important keyboard inputs each frame
-            if (spacePressed && ship != null)
-            {
-                fireBullet();
-            }
+            jitter.frameStarted(System.nanoTime());
+            frame();
+        }
+    }
+
+    /**
+     * Does everything that happens during one frame: responds to the keys, makes any transition, moves the
+     * participants, and refreshes the screen.
+     */
+    private void frame ()
+    {
+        // The participants are only timed once the frame has been started, so they get the metrics here rather than
+        // when they are enabled
+        FrameMetrics timing = metrics;
+        if (timing != null)
+        {
+            timing.startFrame();
+        }
+        pstate.setMetrics(timing);
+        FrameEvent event = GameEvents.isEnabled() ? new FrameEvent() : null;
 
-            if (rightPressed && ship != null)
+        // checks status of all important keyboard inputs each frame, unless they come from a recording
+        int keys;
+        if (playback == null)
+        {
+            keys = input.get();
+        }
+        else if (playback.hasNext())
+        {
+            keys = playback.nextInput();
+            if ((keys & INPUT_START) != 0)
             {
-                ship.turnRight();
+                initialScreen();
+                keys &= ~INPUT_START;
             }
+        }
+        else
+        {
+            return;
+        }
 
-            if (leftPressed && ship != null)
+        if ((keys & INPUT_FIRE) != 0 && ship != null)
+        {
+            fireBullet();
+        }
+
+        if ((keys & INPUT_RIGHT) != 0 && ship != null)
+        {
+            ship.turnRight();
+        }
+
+        if ((keys & INPUT_LEFT) != 0 && ship != null)
+        {
+            ship.turnLeft();
+        }
+
+        if ((keys & INPUT_THRUST) != 0 && ship != null)
+        {
+            ship.accelerate();
+        }
+        else if ((previousInput & INPUT_THRUST) != 0 && ship != null)
+        {
+            ship.makeNoFlame();
+        }
+        previousInput = keys;
+
+        // It may be time to make a game transition
+        performTransition();
+        if (timing != null)
+        {
+            timing.mark(FrameMetrics.Phase.INPUT);
+        }
+
+        // Move the participants to their new locations
+        pstate.moveParticipants();
+
+        // Record the frame, or check that it played out as it did when it was recorded
+        if (recording != null)
+        {
+            recording.record(startRecorded ? (keys | INPUT_START) : keys, checksum());
+            startRecorded = false;
+        }
+        else if (playback != null)
+        {
+            boolean diverged = playback.getDivergence() >= 0;
+            if (!playback.check(checksum()) && !diverged)
             {
-                ship.turnLeft();
+                display.setLegend("Replay diverged");
             }
-
-            if (upPressed && ship != null)
+            else if (!playback.hasNext())
             {
-                ship.accelerate();
+                display.setLegend("End of replay");
             }
+        }
 
-            // It may be time to make a game transition
-            performTransition();
-
-            // Move the participants to their new locations
-            pstate.moveParticipants();
-
-            // Refresh screen
-            display.refresh();
+        // Refresh screen
+        if (!headless)
+        {
+            snapshot = new ParticipantSnapshot(pstate);
         }
+        if (timing != null)
+        {
+            timing.mark(FrameMetrics.Phase.SNAPSHOT);
+            timing.endFrame(pstate);
+        }
+        if (event != null)
+        {
+            event.finish(level, pstate.getCount());
+        }
+        display.refresh();
     }
 
     /**
@@ -681,7 +1570,7 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
     private void performTransition ()
     {
         // Do something only if the time has been reached
-        if (transitionTime <= System.currentTimeMillis())
+        if (transitionTime <= pstate.getTimingWheel().getTick())
         {
             // Clear the transition time
             transitionTime = Long.MAX_VALUE;
@@ -701,19 +1590,28 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
     }
 
     /**
-     * Returns the number of asteroids that are active participants
+     * Returns the INPUT_ bit for the key, or 0 if it isn't a key of interest.
      */
-    private int countAsteroids ()
+    private static int inputBit (KeyEvent e)
     {
-        int count = 0;
-        for (Participant p : this)
+        switch (e.getKeyCode())
         {
-            if (p instanceof Asteroid)
-            {
-                count++;
-            }
+            case KeyEvent.VK_SPACE:
+            case KeyEvent.VK_S:
+            case KeyEvent.VK_DOWN:
+                return INPUT_FIRE;
+            case KeyEvent.VK_RIGHT:
+            case KeyEvent.VK_D:
+                return INPUT_RIGHT;
+            case KeyEvent.VK_LEFT:
+            case KeyEvent.VK_A:
+                return INPUT_LEFT;
+            case KeyEvent.VK_UP:
+            case KeyEvent.VK_W:
+                return INPUT_THRUST;
+            default:
+                return 0;
         }
-        return count;
     }
 
     /**
@@ -722,25 +1620,10 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
     @Override
     public void keyPressed (KeyEvent e)
     {
-        if ((e.getKeyCode() == KeyEvent.VK_SPACE || e.getKeyCode() == KeyEvent.VK_S
-                || e.getKeyCode() == KeyEvent.VK_DOWN) && ship != null)
+        int bit = inputBit(e);
+        if (bit != 0)
         {
-            spacePressed = true;
-        }
-
-        if ((e.getKeyCode() == KeyEvent.VK_RIGHT || e.getKeyCode() == KeyEvent.VK_D) && ship != null)
-        {
-            rightPressed = true;
-        }
-
-        if ((e.getKeyCode() == KeyEvent.VK_LEFT || e.getKeyCode() == KeyEvent.VK_A) && ship != null)
-        {
-            leftPressed = true;
-        }
-
-        if ((e.getKeyCode() == KeyEvent.VK_UP || e.getKeyCode() == KeyEvent.VK_W) && ship != null)
-        {
-            upPressed = true;
+            input.getAndUpdate(m -> m | bit);
         }
     }
 
@@ -752,26 +1635,10 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
     @Override
     public void keyReleased (KeyEvent e)
     {
-        if ((e.getKeyCode() == KeyEvent.VK_SPACE || e.getKeyCode() == KeyEvent.VK_S
-                || e.getKeyCode() == KeyEvent.VK_DOWN) && ship != null)
+        int bit = inputBit(e);
+        if (bit != 0)
         {
-            spacePressed = false;
-        }
-
-        if ((e.getKeyCode() == KeyEvent.VK_RIGHT || e.getKeyCode() == KeyEvent.VK_D) && ship != null)
-        {
-            rightPressed = false;
-        }
-
-        if ((e.getKeyCode() == KeyEvent.VK_LEFT || e.getKeyCode() == KeyEvent.VK_A) && ship != null)
-        {
-            leftPressed = false;
-        }
-
-        if ((e.getKeyCode() == KeyEvent.VK_UP || e.getKeyCode() == KeyEvent.VK_W) && ship != null)
-        {
-            upPressed = false;
-            ship.makeNoFlame();
+            input.getAndUpdate(m -> m & ~bit);
         }
     }
 
@@ -814,6 +1681,7 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
             // fails, return null.
             Clip clip = AudioSystem.getClip();
             clip.open(AudioSystem.getAudioInputStream(sound));
+            clipNames.put(clip, soundFile);
             return clip;
         }
         catch (LineUnavailableException e)
@@ -835,20 +1703,39 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
         return thrustClip;
     }
 
-    /** plays clip */
+    /** plays clip (if there is one) */
     public void playClip (Clip clip)
     {
+        if (clip == null)
+        {
+            return;
+        }
+        FrameMetrics timing = metrics;
+        long start = (timing != null) ? System.nanoTime() : 0;
+        ClipStartEvent event = GameEvents.isEnabled() ? new ClipStartEvent() : null;
         if (clip.isRunning())
         {
             clip.stop();
         }
         clip.setFramePosition(0);
         clip.start();
+        if (timing != null)
+        {
+            timing.record(FrameMetrics.Phase.AUDIO, System.nanoTime() - start);
+        }
+        if (event != null)
+        {
+            event.finish(clipNames.get(clip));
+        }
     }
 
-    /** loops clip */
+    /** loops clip (if there is one) */
     public void loopClip (Clip clip)
     {
+        if (clip == null)
+        {
+            return;
+        }
         if (clip.isRunning())
         {
             clip.stop();
@@ -857,6 +1744,15 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
         clip.loop(Clip.LOOP_CONTINUOUSLY);
     }
 
+    /** stops clip (if there is one) */
+    private void stopClip (Clip clip)
+    {
+        if (clip != null)
+        {
+            clip.stop();
+        }
+    }
+
     public String getVersion ()
     {
         return version;
@@ -872,20 +1768,20 @@ public class Controller implements KeyListener, ActionListener, Iterable<Partici
         if (type == 0) // BulletTime powerup
         {
             enhancedBulletTime = true;
-            enhancedBulletTimeTimer = new Timer(3000, this);
+            enhancedBulletTimeTimer = newTimer(enhancedBulletTimeTimer, 3000);
             enhancedBulletTimeTimer.start();
         }
         else if (type == 1) // ForceField powerup
         {
             forceField = new EnhancedForceField((int) ship.getX(), (int) ship.getY(), this);
             addParticipant(forceField);
-            enhancedForceFieldTimer = new Timer(3000, this);
+            enhancedForceFieldTimer = newTimer(enhancedForceFieldTimer, 3000);
             enhancedForceFieldTimer.start();
         }
         else if (type == 2) // DoubleScore powerup
         {
             enhancedDoubleScore = true;
-            enhancedDoubleScoreTimer = new Timer(5000, this);
+            enhancedDoubleScoreTimer = newTimer(enhancedDoubleScoreTimer, 5000);
             enhancedDoubleScoreTimer.start();
         }
     }
@@ -3,12 +3,13 @@ package asteroids.game;
 import javax.swing.*;
 import static asteroids.game.Constants.*;
 import java.awt.*;
+import java.awt.event.KeyListener;
 
 /**
  * Defines the top-level appearance of an Asteroids game.
  */
 @SuppressWarnings("serial")
-public class Display extends JFrame
+public class Display extends JFrame implements Renderer
 {
     /** The area where the action takes place */
     private Screen screen;
@@ -55,6 +56,7 @@ public class Display extends JFrame
     /**
      * Called when it is time to update the screen display. This is what drives the animation.
      */
+    @Override
     public void refresh ()
     {
         screen.repaint();
@@ -63,23 +65,41 @@ public class Display extends JFrame
     /**
      * Sets the large legend
      */
+    @Override
     public void setLegend (String s)
     {
         screen.setLegend(s);
     }
     
+    @Override
     public void setLevel (int l)
     {
         screen.setLevel(l);
     }
     
+    @Override
     public void setScore (int s)
     {
         screen.setScore(s);
     }
     
+    @Override
     public void setLives (int l)
     {
         screen.setLives(l);
     }
+
+    @Override
+    public void startListening (KeyListener listener)
+    {
+        removeKeyListener(listener);
+        addKeyListener(listener);
+        requestFocusInWindow();
+    }
+
+    @Override
+    public void stopListening (KeyListener listener)
+    {
+        removeKeyListener(listener);
+    }
 }
@@ -0,0 +1,299 @@
+package asteroids.game;
+
+import static asteroids.game.Constants.*;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Measures where the time of each frame goes. A frame is split into phases, each of which has a Histogram of how many
+ * nanoseconds it took; the phases are timed by reading the clock once at the end of each, so the cost is a clock read
+ * and a histogram update per phase. Painting and starting sound clips happen outside the frame's phases and are timed
+ * separately. The collision checks and the number of participants of each kind are counted too.
+ *
+ * A Controller only measures its frames after enableMetrics() is called; until then, the only cost is checking for
+ * null. The measurements can be read from any thread, and over JMX once register() has been called.
+ */
+public class FrameMetrics implements FrameMetricsMXBean
+{
+    /**
+     * The parts of a frame that are timed.
+     */
+    public enum Phase
+    {
+        /** Responding to the keys and making any transition to a new stage of the game */
+        INPUT,
+
+        /** Firing the countdown timers that are due */
+        TIMERS,
+
+        /** Moving the participants */
+        MOVE,
+
+        /** Detecting collisions and letting the participants respond to them */
+        COLLISIONS,
+
+        /** Adding new participants and removing expired ones */
+        ADDS_REMOVES,
+
+        /** Recording the frame and taking the snapshot that the screen draws */
+        SNAPSHOT,
+
+        /** The whole frame */
+        FRAME,
+
+        /** Painting the screen, which happens on the Swing event thread */
+        PAINT,
+
+        /** Starting a sound clip */
+        AUDIO
+    }
+
+    /** Number of frames between counts of the participants of each kind, which take longer than the rest */
+    private static final int COUNT_INTERVAL = 30;
+
+    /** Number of FrameMetrics registered over JMX so far, used to give each a different name */
+    private static final AtomicInteger REGISTRATIONS = new AtomicInteger();
+
+    /** Length of each phase, indexed by its ordinal */
+    private final Histogram[] histograms;
+
+    /** When the current frame started, according to System.nanoTime() */
+    private long frameStart;
+
+    /** When the most recent phase ended */
+    private long lastMark;
+
+    /** Number of frames measured */
+    private final AtomicLong frames;
+
+    /** Number of frames that took longer than FRAME_INTERVAL */
+    private final AtomicLong overBudgetFrames;
+
+    /** Number of pairs of participants that were tested for a collision */
+    private final AtomicLong pairsTested;
+
+    /** Number of tested pairs that collided */
+    private final AtomicLong collisions;
+
+    /** The number of unexpired participants of each class, as of the last count */
+    private volatile Map<Class<?>, int[]> aliveByType;
+
+    /**
+     * Creates a FrameMetrics with nothing measured.
+     */
+    public FrameMetrics ()
+    {
+        histograms = new Histogram[Phase.values().length];
+        for (int i = 0; i < histograms.length; i++)
+        {
+            histograms[i] = new Histogram();
+        }
+        frames = new AtomicLong();
+        overBudgetFrames = new AtomicLong();
+        pairsTested = new AtomicLong();
+        collisions = new AtomicLong();
+        aliveByType = Collections.emptyMap();
+    }
+
+    /**
+     * Makes the measurements available over JMX from the platform MBean server, and returns the name they are under.
+     */
+    public ObjectName register () throws JMException
+    {
+        ObjectName name = new ObjectName("asteroids:type=FrameMetrics,name=game" + REGISTRATIONS.incrementAndGet());
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+        return name;
+    }
+
+    /**
+     * Returns the histogram of the nanoseconds taken by the phase.
+     */
+    public Histogram getHistogram (Phase phase)
+    {
+        return histograms[phase.ordinal()];
+    }
+
+    /**
+     * Records that a frame is starting. This, mark, and endFrame must all be called by the thread that runs the
+     * frames.
+     */
+    void startFrame ()
+    {
+        frameStart = System.nanoTime();
+        lastMark = frameStart;
+    }
+
+    /**
+     * Records that the phase, which started when the previous one ended, has ended.
+     */
+    void mark (Phase phase)
+    {
+        long now = System.nanoTime();
+        histograms[phase.ordinal()].record(now - lastMark);
+        lastMark = now;
+    }
+
+    /**
+     * Records that the frame, which ended with the most recent mark, is over. Every so often, also counts the
+     * participants of each kind in state.
+     */
+    void endFrame (ParticipantState state)
+    {
+        long elapsed = lastMark - frameStart;
+        histograms[Phase.FRAME.ordinal()].record(elapsed);
+        if (elapsed > FRAME_INTERVAL * 1_000_000L)
+        {
+            overBudgetFrames.lazySet(overBudgetFrames.get() + 1);
+        }
+        long n = frames.get() + 1;
+        frames.lazySet(n);
+        if (n % COUNT_INTERVAL == 1)
+        {
+            countAlive(state);
+        }
+    }
+
+    /**
+     * Records the number of nanoseconds taken by something that isn't one of a frame's phases. Each such phase must
+     * only be recorded by one thread.
+     */
+    void record (Phase phase, long nanos)
+    {
+        histograms[phase.ordinal()].record(nanos);
+    }
+
+    /**
+     * Records how many pairs of participants were tested for collisions during a frame, and how many collided.
+     */
+    void countCollisions (int tested, int collided)
+    {
+        pairsTested.lazySet(pairsTested.get() + tested);
+        collisions.lazySet(collisions.get() + collided);
+    }
+
+    /**
+     * Counts the unexpired participants of each class in state.
+     */
+    private void countAlive (ParticipantState state)
+    {
+        Map<Class<?>, int[]> counts = new IdentityHashMap<>();
+        for (Participant p : state)
+        {
+            int[] count = counts.get(p.getClass());
+            if (count == null)
+            {
+                counts.put(p.getClass(), new int[] { 1 });
+            }
+            else
+            {
+                count[0]++;
+            }
+        }
+        aliveByType = counts;
+    }
+
+    @Override
+    public long getFrames ()
+    {
+        return frames.get();
+    }
+
+    @Override
+    public long getOverBudgetFrames ()
+    {
+        return overBudgetFrames.get();
+    }
+
+    @Override
+    public Map<String, Double> getMeanMicros ()
+    {
+        Map<String, Double> result = new TreeMap<>();
+        for (Phase phase : Phase.values())
+        {
+            result.put(phase.name(), getHistogram(phase).getMean() / 1e3);
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Double> getPercentile99Micros ()
+    {
+        Map<String, Double> result = new TreeMap<>();
+        for (Phase phase : Phase.values())
+        {
+            result.put(phase.name(), getHistogram(phase).getValueAtPercentile(99) / 1e3);
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Double> getMaxMicros ()
+    {
+        Map<String, Double> result = new TreeMap<>();
+        for (Phase phase : Phase.values())
+        {
+            result.put(phase.name(), getHistogram(phase).getMax() / 1e3);
+        }
+        return result;
+    }
+
+    @Override
+    public long getPairsTested ()
+    {
+        return pairsTested.get();
+    }
+
+    @Override
+    public long getCollisions ()
+    {
+        return collisions.get();
+    }
+
+    @Override
+    public Map<String, Integer> getAliveByType ()
+    {
+        // The names are looked up here rather than when counting, since getSimpleName() is slow
+        Map<String, Integer> result = new TreeMap<>();
+        for (Map.Entry<Class<?>, int[]> e : aliveByType.entrySet())
+        {
+            result.put(e.getKey().getSimpleName(), e.getValue()[0]);
+        }
+        return result;
+    }
+
+    @Override
+    public void reset ()
+    {
+        for (Histogram h : histograms)
+        {
+            h.reset();
+        }
+        frames.set(0);
+        overBudgetFrames.set(0);
+        pairsTested.set(0);
+        collisions.set(0);
+    }
+
+    @Override
+    public String toString ()
+    {
+        StringBuilder s = new StringBuilder();
+        s.append(String.format("%d frames, %d over budget, %d pairs tested, %d collisions%n", getFrames(),
+                getOverBudgetFrames(), getPairsTested(), getCollisions()));
+        for (Phase phase : Phase.values())
+        {
+            Histogram h = getHistogram(phase);
+            s.append(String.format("%-12s mean %8.2f us, 99%% %8.2f us, max %8.2f us%n", phase, h.getMean() / 1e3,
+                    h.getValueAtPercentile(99) / 1e3, h.getMax() / 1e3));
+        }
+        s.append(getAliveByType());
+        return s.toString();
+    }
+}
@@ -0,0 +1,54 @@
+package asteroids.game;
+
+import java.util.Map;
+
+/**
+ * The view of a game's FrameMetrics that is offered over JMX. Times are in microseconds.
+ */
+public interface FrameMetricsMXBean
+{
+    /**
+     * Returns the number of frames measured.
+     */
+    long getFrames ();
+
+    /**
+     * Returns the number of frames that took longer than the time between frames.
+     */
+    long getOverBudgetFrames ();
+
+    /**
+     * Returns the mean time taken by each phase of a frame.
+     */
+    Map<String, Double> getMeanMicros ();
+
+    /**
+     * Returns the time that 99% of the measurements of each phase were at or below.
+     */
+    Map<String, Double> getPercentile99Micros ();
+
+    /**
+     * Returns the longest time taken by each phase.
+     */
+    Map<String, Double> getMaxMicros ();
+
+    /**
+     * Returns the number of pairs of participants that have been tested for a collision.
+     */
+    long getPairsTested ();
+
+    /**
+     * Returns the number of tested pairs that collided.
+     */
+    long getCollisions ();
+
+    /**
+     * Returns the number of unexpired participants of each class, as of the last count.
+     */
+    Map<String, Integer> getAliveByType ();
+
+    /**
+     * Forgets everything measured so far.
+     */
+    void reset ();
+}
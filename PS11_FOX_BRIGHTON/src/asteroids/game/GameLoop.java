@@ -0,0 +1,172 @@
+package asteroids.game;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs frames of a game on a thread of its own, at a fixed rate that doesn't depend on the Swing event thread. Time is
+ * kept with an accumulator: the time that passes is added to it, and a frame is run for each whole frame interval that
+ * has built up. If the game falls behind, it runs several frames in a row to catch up, but never more than
+ * MAX_CATCH_UP of them. Beyond that the missed time is dropped, so that one long pause doesn't make the game race.
+ *
+ * Other threads must not touch the game directly. Instead they post tasks, which the loop runs just before its next
+ * frame.
+ */
+public class GameLoop implements Runnable
+{
+    /** Largest number of frames run back to back to catch up */
+    public static final int MAX_CATCH_UP = 5;
+
+    /** What to do during each frame */
+    private final Runnable frame;
+
+    /** Length of a frame in nanoseconds */
+    private final long step;
+
+    /** Tasks posted by other threads, waiting to be run */
+    private final ConcurrentLinkedQueue<Runnable> tasks;
+
+    /** How regularly the frames start */
+    private final JitterStats jitter;
+
+    /** Number of frames that were skipped because the catch-up limit was reached */
+    private volatile long droppedFrames;
+
+    /** True until the loop is asked to stop */
+    private volatile boolean running;
+
+    /** The thread running the loop, or null if it hasn't been started */
+    private volatile Thread thread;
+
+    /**
+     * Creates a loop that runs frame once every msecs milliseconds once it is started.
+     */
+    public GameLoop (Runnable frame, int msecs)
+    {
+        this.frame = frame;
+        this.step = msecs * 1000000L;
+        tasks = new ConcurrentLinkedQueue<>();
+        jitter = new JitterStats(msecs);
+        droppedFrames = 0;
+        running = false;
+    }
+
+    /**
+     * Starts running frames on a new thread.
+     */
+    public synchronized void start ()
+    {
+        if (thread == null)
+        {
+            running = true;
+            thread = new Thread(this, "Game loop");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Stops running frames and waits for the frame in progress, if any, to finish.
+     */
+    public void stop ()
+    {
+        running = false;
+        Thread t = thread;
+        if (t != null && t != Thread.currentThread())
+        {
+            LockSupport.unpark(t);
+            try
+            {
+                t.join();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Arranges for the task to be run on the loop's thread before the next frame.
+     */
+    public void post (Runnable task)
+    {
+        tasks.add(task);
+    }
+
+    /**
+     * Reports whether the caller is running on the loop's thread.
+     */
+    public boolean isLoopThread ()
+    {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Returns the statistics about how regularly the frames have started.
+     */
+    public JitterStats getJitter ()
+    {
+        return jitter;
+    }
+
+    /**
+     * Returns the number of frames that were skipped because the loop fell too far behind.
+     */
+    public long getDroppedFrames ()
+    {
+        return droppedFrames;
+    }
+
+    /**
+     * Runs frames until stop() is called.
+     */
+    @Override
+    public void run ()
+    {
+        long previous = System.nanoTime();
+        long lag = step;
+        while (running)
+        {
+            long now = System.nanoTime();
+            lag += now - previous;
+            previous = now;
+
+            // Run a frame for each frame interval that has built up, up to the catch-up limit
+            int frames = 0;
+            while (lag >= step && frames < MAX_CATCH_UP && running)
+            {
+                runTasks();
+                jitter.frameStarted(System.nanoTime());
+                frame.run();
+                lag -= step;
+                frames++;
+            }
+            if (lag >= step)
+            {
+                droppedFrames += lag / step;
+                lag %= step;
+            }
+
+            // Sleep until the next frame is due
+            long wait = step - lag - (System.nanoTime() - previous);
+            if (wait > 0)
+            {
+                LockSupport.parkNanos(this, wait);
+            }
+        }
+        runTasks();
+    }
+
+    /**
+     * Runs the tasks that have been posted, in the order they were posted.
+     */
+    private void runTasks ()
+    {
+        Runnable task;
+        while ((task = tasks.poll()) != null)
+        {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package asteroids.game;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts how often values (such as durations in nanoseconds) fall into each of a fixed set of buckets, in the style of
+ * an HDR histogram. Values below 16 have a bucket each; above that, each power of two is split into 16 buckets, so a
+ * value is known to within about 6%. Recording a value takes a few instructions and never allocates or locks.
+ *
+ * Only one thread may record into a histogram, but any thread may read it at the same time. A reader may see a value
+ * counted in one statistic and not yet in another, which is harmless for monitoring.
+ */
+public class Histogram
+{
+    /** Number of bits of each value, after its leading one bit, that choose its bucket */
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /** Number of buckets that each power of two is split into */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** Number of buckets, enough for any non-negative long */
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    /** How many values have fallen into each bucket */
+    private final AtomicLongArray counts;
+
+    /** Number of values recorded */
+    private final AtomicLong count;
+
+    /** Sum of the values recorded */
+    private final AtomicLong sum;
+
+    /** Largest value recorded */
+    private final AtomicLong max;
+
+    /**
+     * Creates an empty histogram.
+     */
+    public Histogram ()
+    {
+        counts = new AtomicLongArray(BUCKETS);
+        count = new AtomicLong();
+        sum = new AtomicLong();
+        max = new AtomicLong();
+    }
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     */
+    public void record (long value)
+    {
+        value = Math.max(0, value);
+        int bucket = bucketOf(value);
+
+        // There is only one writer, so plain reads followed by ordered writes are enough
+        counts.lazySet(bucket, counts.get(bucket) + 1);
+        count.lazySet(count.get() + 1);
+        sum.lazySet(sum.get() + value);
+        if (value > max.get())
+        {
+            max.lazySet(value);
+        }
+    }
+
+    /**
+     * Returns the number of values recorded.
+     */
+    public long getCount ()
+    {
+        return count.get();
+    }
+
+    /**
+     * Returns the mean of the values recorded, or 0 if there are none.
+     */
+    public double getMean ()
+    {
+        long n = count.get();
+        return (n == 0) ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * Returns the largest value recorded, or 0 if there are none.
+     */
+    public long getMax ()
+    {
+        return max.get();
+    }
+
+    /**
+     * Returns a value (to within the width of its bucket) that the given percentage of the recorded values are at or
+     * below, or 0 if there are none.
+     */
+    public long getValueAtPercentile (double percentile)
+    {
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            n += counts.get(i);
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            seen += counts.get(i);
+            if (seen >= target)
+            {
+                return Math.min(highestValueIn(i), max.get());
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Forgets every value recorded. If a value is being recorded at the same time, some of it may survive.
+     */
+    public void reset ()
+    {
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    @Override
+    public String toString ()
+    {
+        return String.format("count %d, mean %.0f, 50%% %d, 99%% %d, max %d", getCount(), getMean(),
+                getValueAtPercentile(50), getValueAtPercentile(99), getMax());
+    }
+
+    /**
+     * Returns the bucket that the non-negative value falls into.
+     */
+    private static int bucketOf (long value)
+    {
+        if (value < SUB_BUCKETS)
+        {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * Returns the largest value that falls into the bucket.
+     */
+    private static long highestValueIn (int bucket)
+    {
+        if (bucket < SUB_BUCKETS)
+        {
+            return bucket;
+        }
+        int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+        long lowest = (long) (SUB_BUCKETS + (bucket & (SUB_BUCKETS - 1))) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
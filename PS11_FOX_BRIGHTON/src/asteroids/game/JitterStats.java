@@ -0,0 +1,118 @@
+package asteroids.game;
+
+/**
+ * Keeps statistics about how regularly frames start. Each frame reports when it started, and the intervals between
+ * consecutive starts are compared with the intended frame interval. The methods are synchronized so that the frames
+ * can be timed on one thread and the statistics read on another.
+ */
+public class JitterStats
+{
+    /** The intended interval between frames, in milliseconds */
+    private final double target;
+
+    /** When the most recent frame started, in nanoseconds, or -1 if no frame has started */
+    private long lastStart;
+
+    /** Number of intervals measured */
+    private long count;
+
+    /** Mean of the intervals, in milliseconds */
+    private double mean;
+
+    /** Sum of squared differences between the intervals and their mean (Welford's method) */
+    private double sumOfSquares;
+
+    /** Sum of the absolute differences between the intervals and the target */
+    private double sumOfErrors;
+
+    /** Largest absolute difference between an interval and the target */
+    private double maxError;
+
+    /**
+     * Creates statistics for frames that are meant to start every msecs milliseconds.
+     */
+    public JitterStats (int msecs)
+    {
+        target = msecs;
+        reset();
+    }
+
+    /**
+     * Forgets all of the frames seen so far.
+     */
+    public synchronized void reset ()
+    {
+        lastStart = -1;
+        count = 0;
+        mean = 0;
+        sumOfSquares = 0;
+        sumOfErrors = 0;
+        maxError = 0;
+    }
+
+    /**
+     * Records that a frame started at the given time, as reported by System.nanoTime().
+     */
+    public synchronized void frameStarted (long nanos)
+    {
+        if (lastStart >= 0)
+        {
+            double interval = (nanos - lastStart) / 1e6;
+            count++;
+            double delta = interval - mean;
+            mean += delta / count;
+            sumOfSquares += delta * (interval - mean);
+            double error = Math.abs(interval - target);
+            sumOfErrors += error;
+            maxError = Math.max(maxError, error);
+        }
+        lastStart = nanos;
+    }
+
+    /**
+     * Returns the number of intervals measured.
+     */
+    public synchronized long getCount ()
+    {
+        return count;
+    }
+
+    /**
+     * Returns the mean interval between frames in milliseconds.
+     */
+    public synchronized double getMeanInterval ()
+    {
+        return mean;
+    }
+
+    /**
+     * Returns the standard deviation of the intervals between frames in milliseconds.
+     */
+    public synchronized double getStandardDeviation ()
+    {
+        return (count < 2) ? 0 : Math.sqrt(sumOfSquares / (count - 1));
+    }
+
+    /**
+     * Returns the mean difference, in milliseconds, between the intervals and the intended interval.
+     */
+    public synchronized double getMeanError ()
+    {
+        return (count == 0) ? 0 : sumOfErrors / count;
+    }
+
+    /**
+     * Returns the largest difference, in milliseconds, between an interval and the intended interval.
+     */
+    public synchronized double getMaxError ()
+    {
+        return maxError;
+    }
+
+    @Override
+    public synchronized String toString ()
+    {
+        return String.format("%d frames, mean interval %.3f ms, std dev %.3f ms, mean error %.3f ms, max error %.3f ms",
+                count, mean, getStandardDeviation(), getMeanError(), maxError);
+    }
+}
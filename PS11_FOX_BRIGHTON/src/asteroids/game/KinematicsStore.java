@@ -0,0 +1,88 @@
+package asteroids.game;
+
+import java.util.Arrays;
+
+/**
+ * Holds the positions, velocities, and rotations of Participants in parallel arrays. Each Participant owns one slot,
+ * and its getters and setters read and write that slot. A Participant that is not part of a ParticipantState has a
+ * store of its own with a single slot. A ParticipantState can instead keep all of its Participants in one shared store,
+ * so that their positions can be advanced by a single loop over primitive arrays.
+ */
+class KinematicsStore
+{
+    /** Coordinates of the centers of the Participants */
+    double[] x, y;
+
+    /** Speeds of the Participants in pixels per frame, in the horizontal (x) and vertical (y) directions */
+    double[] speedX, speedY;
+
+    /** Rotations of the Participants' outlines in radians */
+    double[] rotation;
+
+    /** 1 for each slot whose position is advanced by integrate(), 0 for each slot that advances its own position */
+    double[] step;
+
+    /**
+     * Creates a store with room for the given number of slots, all zero.
+     */
+    KinematicsStore (int capacity)
+    {
+        x = new double[capacity];
+        y = new double[capacity];
+        speedX = new double[capacity];
+        speedY = new double[capacity];
+        rotation = new double[capacity];
+        step = new double[capacity];
+    }
+
+    /**
+     * Returns the number of slots in the store.
+     */
+    int capacity ()
+    {
+        return x.length;
+    }
+
+    /**
+     * Makes sure that the store has at least the given number of slots. Existing slots keep their values.
+     */
+    void ensureCapacity (int capacity)
+    {
+        if (capacity > x.length)
+        {
+            capacity = Math.max(capacity, 2 * x.length);
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            speedX = Arrays.copyOf(speedX, capacity);
+            speedY = Arrays.copyOf(speedY, capacity);
+            rotation = Arrays.copyOf(rotation, capacity);
+            step = Arrays.copyOf(step, capacity);
+        }
+    }
+
+    /**
+     * Copies the position, velocity, and rotation in slot from of source into slot to of this store.
+     */
+    void copy (KinematicsStore source, int from, int to)
+    {
+        x[to] = source.x[from];
+        y[to] = source.y[from];
+        speedX[to] = source.speedX[from];
+        speedY[to] = source.speedY[from];
+        rotation[to] = source.rotation[from];
+    }
+
+    /**
+     * Advances the position of each of the first n slots by its speed, scaled by its step. Slots with a step of 0 stay
+     * where they are. The loop has no branches or calls, so the JIT can vectorize it.
+     */
+    void integrate (int n)
+    {
+        double[] x = this.x, y = this.y, speedX = this.speedX, speedY = this.speedY, step = this.step;
+        for (int i = 0; i < n; i++)
+        {
+            x[i] += speedX[i] * step[i];
+            y[i] += speedY[i] * step[i];
+        }
+    }
+}
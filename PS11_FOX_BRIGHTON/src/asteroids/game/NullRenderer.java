@@ -0,0 +1,44 @@
+package asteroids.game;
+
+import java.awt.event.KeyListener;
+
+/**
+ * A Renderer that shows nothing. A Controller that uses it runs without a window, so it can be driven by a program.
+ */
+public class NullRenderer implements Renderer
+{
+    @Override
+    public void refresh ()
+    {
+    }
+
+    @Override
+    public void setLegend (String s)
+    {
+    }
+
+    @Override
+    public void setLevel (int l)
+    {
+    }
+
+    @Override
+    public void setScore (int s)
+    {
+    }
+
+    @Override
+    public void setLives (int l)
+    {
+    }
+
+    @Override
+    public void startListening (KeyListener listener)
+    {
+    }
+
+    @Override
+    public void stopListening (KeyListener listener)
+    {
+    }
+}
@@ -3,6 +3,10 @@ package asteroids.game;
 import static asteroids.game.Constants.*;
 import java.awt.*;
 import java.awt.geom.*;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import asteroids.events.GameEvents;
+import asteroids.events.ParticipantExpireEvent;
 
 /**
  * Represents a single moving element in an asteroids game. Each Participant object has an outline (used for drawing
@@ -15,20 +19,56 @@ import java.awt.geom.*;
  */
 public abstract class Participant
 {
-    /** Speed in pixels per second in the horizontal (x) and vertical (y) directions */
-    private double speedX, speedY;
+    /** True if overlaps() intersects Areas instead of using CollisionPolygons */
+    private static boolean areaOverlaps = false;
 
-    /** Amount by which this Participant's outline is rotated in radians */
-    private double rotation;
+    /** Where this Participant's position, velocity, and rotation are kept */
+    private KinematicsStore kinematics;
 
-    /** Current x-coordinate of the Participant's center */
-    private double x;
+    /** The store this Participant uses when it isn't sharing one with others */
+    private final KinematicsStore ownKinematics;
 
-    /** Current y-coordinate of the Participant's center */
-    private double y;
+    /** This Participant's slot in kinematics */
+    private int slot;
 
-    /** Border of the Participant that is used for drawing */
-    private Shape border;
+    /** Reused to translate and rotate the outline each time the Participant moves */
+    private AffineTransform transform;
+
+    /** Bounding box of the border, as of the most recent move, or null if the border has never been placed */
+    private Rectangle2D.Double bounds;
+
+    /** True if the border has been placed since this Participant was constructed or reused */
+    private boolean placed;
+
+    /** Coordinates of the center of the border, as of the most recent move */
+    private double borderX, borderY;
+
+    /** Rotation of the border, as of the most recent move */
+    private double borderRotation;
+
+    /**
+     * Where the center of the border was before the most recent move, if this Participant is swept and the move was an
+     * ordinary one. Otherwise the same as borderX and borderY.
+     */
+    private double fromX, fromY;
+
+    /** Distance the center of the border was swept along by the most recent move */
+    private double sweep;
+
+    /** If sweep isn't 0, the bounding box of the whole sweep of the border */
+    private Rectangle2D.Double sweptBounds;
+
+    /** The outline flattened into polygons, used for detecting collisions */
+    private CollisionPolygon polygon;
+
+    /** The outline that polygon was made from */
+    private Shape polygonOutline;
+
+    /**
+     * Coordinates of the points of polygon, as of the most recent move. Together they make up the border. The array is
+     * only ever grown, so it can be longer than polygon needs when the outline changes back and forth.
+     */
+    private double[] coordinates;
 
     /** True if the Participant is expired */
     private boolean expired;
@@ -36,18 +76,81 @@ public abstract class Participant
     // True if the Participant is inert (does not interact with any other Participants)
     private boolean isInert;
 
+    /** The ParticipantState that this Participant has been added to, or null if none */
+    private ParticipantState state;
+
+    /** Timers that were started before this Participant was added to a ParticipantState, or null if none */
+    private ArrayList<ParticipantCountdownTimer> waitingTimers;
+
+    /** Position of this Participant in the most recent saved state that included it */
+    int saveIndex;
+
+    /** Number of times this Participant has been reused, so that timers started before then can be ignored */
+    int generation;
+
+    /** This Participant's row of the CollisionMatrix, given when it is first added to a ParticipantState */
+    int collisionKind;
+
     /**
      * Constructs an active Participant with no velocity, rotation, or border.
      */
     protected Participant ()
     {
-        speedX = 0;
-        speedY = 0;
-        rotation = 0;
-        x = 0;
-        y = 0;
-        border = null;
+        ownKinematics = new KinematicsStore(1);
+        kinematics = ownKinematics;
+        slot = 0;
+        transform = new AffineTransform();
+        bounds = null;
+        placed = false;
         expired = false;
+        collisionKind = CollisionMatrix.UNKNOWN;
+    }
+
+    /**
+     * Chooses how overlaps() works. If b is true, it intersects java.awt.geom.Area objects made from the borders, which
+     * is how collisions were originally detected. Otherwise it compares CollisionPolygons, which is much faster. This
+     * exists so that the two can be checked against each other.
+     */
+    public static void setAreaOverlaps (boolean b)
+    {
+        areaOverlaps = b;
+    }
+
+    /**
+     * Returns the area enclosed by the intersection of the java.awt.geom.Area objects made from the borders of this
+     * Participant and p, which is what overlaps() tests for emptiness when setAreaOverlaps(true) is in effect. Area
+     * keeps slivers where rounding has pulled apart edges that should lie on top of each other, so this is how an
+     * overlap with no real area in it is told apart from a real one.
+     */
+    public double getAreaOverlap (Participant p)
+    {
+        Area a = new Area(getBorder());
+        a.intersect(new Area(p.getBorder()));
+        double sum = 0;
+        double startX = 0, startY = 0, lastX = 0, lastY = 0;
+        double[] coords = new double[6];
+        for (PathIterator iter = a.getPathIterator(null, 0.25); !iter.isDone(); iter.next())
+        {
+            int type = iter.currentSegment(coords);
+            if (type == PathIterator.SEG_MOVETO)
+            {
+                startX = lastX = coords[0];
+                startY = lastY = coords[1];
+            }
+            else if (type == PathIterator.SEG_LINETO)
+            {
+                sum += lastX * coords[1] - coords[0] * lastY;
+                lastX = coords[0];
+                lastY = coords[1];
+            }
+            else if (type == PathIterator.SEG_CLOSE)
+            {
+                sum += lastX * startY - startX * lastY;
+                lastX = startX;
+                lastY = startY;
+            }
+        }
+        return Math.abs(sum) / 2;
     }
 
     /**
@@ -57,16 +160,26 @@ public abstract class Participant
     {
         if (p != null)
         {
+            if (GameEvents.isEnabled() && !p.isExpired())
+            {
+                ParticipantExpireEvent.emit(p.getClass());
+            }
             p.setExpired();
         }
     }
 
     /**
      * Sets the inertness property. If a Participant is inert, its collisions with other Participants is ignored.
-     * Setting a participant inert when possible will improve the performance of the game.
+     * Setting a participant inert when possible will improve the performance of the game, since the collision checks
+     * then leave it out altogether. A Participant can be made inert from its constructor. One that stops being inert
+     * while collisions are being dealt with is only checked from the next frame on.
      */
     public void setInert (boolean b)
     {
+        if (b != isInert && state != null)
+        {
+            state.inertChanged();
+        }
         isInert = b;
     }
 
@@ -84,7 +197,12 @@ public abstract class Participant
      */
     private void setExpired ()
     {
+        if (!expired && state != null)
+        {
+            state.participantExpired(this);
+        }
         expired = true;
+        kinematics.step[slot] = 0;
     }
 
     /**
@@ -95,14 +213,141 @@ public abstract class Participant
         return expired;
     }
 
+    /**
+     * Records that this Participant has been added to state, and starts the countdowns of any timers that were waiting
+     * for that to happen.
+     */
+    void setState (ParticipantState state)
+    {
+        this.state = state;
+        if (waitingTimers != null)
+        {
+            for (int i = 0; i < waitingTimers.size(); i++)
+            {
+                ParticipantCountdownTimer t = waitingTimers.get(i);
+                state.getTimingWheel().schedule(t, t.getTicks());
+            }
+            waitingTimers.clear();
+        }
+    }
+
+    /**
+     * Starts (or restarts) the countdown of a timer for this Participant. If this Participant hasn't been added to a
+     * ParticipantState yet, the countdown waits until it is.
+     */
+    void startTimer (ParticipantCountdownTimer t)
+    {
+        t.setGeneration(generation);
+        if (state != null)
+        {
+            state.getTimingWheel().schedule(t, t.getTicks());
+        }
+        else
+        {
+            if (waitingTimers == null)
+            {
+                waitingTimers = new ArrayList<>(2);
+            }
+            if (!waitingTimers.contains(t))
+            {
+                waitingTimers.add(t);
+            }
+        }
+    }
+
+    /**
+     * Forgets the timers that are waiting for this Participant to be added to a ParticipantState. A Participant that is
+     * being restored from a saved state gets its timers from there instead of from its constructor.
+     */
+    void clearWaitingTimers ()
+    {
+        if (waitingTimers != null)
+        {
+            waitingTimers.clear();
+        }
+    }
+
+    /**
+     * Stops the countdown of a timer for this Participant.
+     */
+    void stopTimer (ParticipantCountdownTimer t)
+    {
+        if (state != null)
+        {
+            state.getTimingWheel().cancel(t);
+        }
+        else if (waitingTimers != null)
+        {
+            waitingTimers.remove(t);
+        }
+    }
+
+    /**
+     * Moves this Participant's position, velocity, and rotation into the given slot of store, which is where they will
+     * be kept from now on.
+     */
+    void attach (KinematicsStore store, int slot)
+    {
+        store.copy(kinematics, this.slot, slot);
+        kinematics = store;
+        this.slot = slot;
+    }
+
+    /**
+     * Moves this Participant's position, velocity, and rotation out of the store it shares with others and into a
+     * store of its own.
+     */
+    void detach ()
+    {
+        ownKinematics.copy(kinematics, slot, 0);
+        kinematics = ownKinematics;
+        slot = 0;
+    }
+
+    /**
+     * Reports whether this Participant can be reused once it has expired and been removed from its ParticipantState.
+     * A class that says so must not be referred to from anywhere else once it expires, and must have a way (normally
+     * a static create method that calls ParticipantState.reuse) to set up a reused instance as its constructor would.
+     */
+    protected boolean isReusable ()
+    {
+        return false;
+    }
+
+    /**
+     * Puts this expired Participant, which has been removed from its ParticipantState, back into the state that the
+     * Participant constructor leaves it in. It keeps its transform, bounding boxes, collision polygon, and list of
+     * waiting timers, so if its outline is shared, reusing it allocates nothing.
+     */
+    void prepareForReuse ()
+    {
+        generation++;
+        kinematics = ownKinematics;
+        slot = 0;
+        kinematics.x[0] = 0;
+        kinematics.y[0] = 0;
+        kinematics.speedX[0] = 0;
+        kinematics.speedY[0] = 0;
+        kinematics.rotation[0] = 0;
+        expired = false;
+        isInert = false;
+        placed = false;
+        sweep = 0;
+        state = null;
+        if (waitingTimers != null)
+        {
+            waitingTimers.clear();
+        }
+    }
+
     /**
      * Sets the velocity of this participant. The speed is in pixels per frame refresh and the direction is in radians.
      */
     public void setVelocity (double speed, double direction)
     {
         direction = normalize(direction);
-        speedX = Math.cos(direction) * speed;
-        speedY = Math.sin(direction) * speed;
+        kinematics.speedX[slot] = Math.cos(direction) * speed;
+        kinematics.speedY[slot] = Math.sin(direction) * speed;
     }
 
     /**
@@ -112,8 +357,8 @@ public abstract class Participant
     {
         direction = normalize(direction);
         double speed = getSpeed();
-        speedX = Math.cos(direction) * speed;
-        speedY = Math.sin(direction) * speed;
+        kinematics.speedX[slot] = Math.cos(direction) * speed;
+        kinematics.speedY[slot] = Math.sin(direction) * speed;
     }
 
     /**
@@ -122,8 +367,8 @@ public abstract class Participant
     public void setSpeed (double speed)
     {
         double direction = getDirection();
-        speedX = Math.cos(direction) * speed;
-        speedY = Math.sin(direction) * speed;
+        kinematics.speedX[slot] = Math.cos(direction) * speed;
+        kinematics.speedY[slot] = Math.sin(direction) * speed;
     }
 
     /**
@@ -131,7 +376,7 @@ public abstract class Participant
      */
     public double getDirection ()
     {
-        return normalize(Math.atan2(speedY, speedX));
+        return normalize(Math.atan2(kinematics.speedY[slot], kinematics.speedX[slot]));
     }
 
     /**
@@ -139,6 +384,8 @@ public abstract class Participant
      */
     public double getSpeed ()
     {
+        double speedX = kinematics.speedX[slot];
+        double speedY = kinematics.speedY[slot];
         return Math.sqrt(speedX * speedX + speedY * speedY);
     }
 
@@ -147,7 +394,7 @@ public abstract class Participant
      */
     public void setRotation (double radians)
     {
-        rotation = normalize(radians);
+        kinematics.rotation[slot] = normalize(radians);
     }
 
     /**
@@ -155,7 +402,7 @@ public abstract class Participant
      */
     public void rotate (double delta)
     {
-        rotation = normalize(rotation + delta);
+        kinematics.rotation[slot] = normalize(kinematics.rotation[slot] + delta);
     }
 
     /**
@@ -163,7 +410,7 @@ public abstract class Participant
      */
     public double getRotation ()
     {
-        return rotation;
+        return kinematics.rotation[slot];
     }
 
     /**
@@ -189,15 +436,16 @@ public abstract class Participant
     public void accelerate (double delta)
     {
         // Compute new speeds
-        speedX += delta * Math.cos(rotation);
-        speedY += delta * Math.sin(rotation);
+        double rotation = kinematics.rotation[slot];
+        kinematics.speedX[slot] += delta * Math.cos(rotation);
+        kinematics.speedY[slot] += delta * Math.sin(rotation);
 
         // Enforce the speed limit
         if (getSpeed() > SPEED_LIMIT)
         {
             double direction = getDirection();
-            speedX = SPEED_LIMIT * Math.cos(direction);
-            speedY = SPEED_LIMIT * Math.sin(direction);
+            kinematics.speedX[slot] = SPEED_LIMIT * Math.cos(direction);
+            kinematics.speedY[slot] = SPEED_LIMIT * Math.sin(direction);
         }
     }
 
@@ -206,13 +454,15 @@ public abstract class Participant
      */
     public void applyFriction (double coefficientOfFriction)
     {
+        double speedX = kinematics.speedX[slot];
+        double speedY = kinematics.speedY[slot];
         if (speedX != 0 || speedY != 0)
         {
             double speed = getSpeed();
             double deltaX = coefficientOfFriction * speedX / speed;
             double deltaY = coefficientOfFriction * speedY / speed;
-            speedX = (Math.abs(deltaX) > Math.abs(speedX)) ? 0 : (speedX + deltaX);
-            speedY = (Math.abs(deltaY) > Math.abs(speedY)) ? 0 : (speedY + deltaY);
+            kinematics.speedX[slot] = (Math.abs(deltaX) > Math.abs(speedX)) ? 0 : (speedX + deltaX);
+            kinematics.speedY[slot] = (Math.abs(deltaY) > Math.abs(speedY)) ? 0 : (speedY + deltaY);
         }
     }
 
@@ -221,8 +471,8 @@ public abstract class Participant
      */
     public void setPosition (double x, double y)
     {
-        this.x = x;
-        this.y = y;
+        kinematics.x[slot] = x;
+        kinematics.y[slot] = y;
     }
 
     /**
@@ -230,7 +480,7 @@ public abstract class Participant
      */
     public double getX ()
     {
-        return x;
+        return kinematics.x[slot];
     }
 
     /**
@@ -238,7 +488,7 @@ public abstract class Participant
      */
     public double getY ()
     {
-        return y;
+        return kinematics.y[slot];
     }
 
     /**
@@ -249,6 +499,29 @@ public abstract class Participant
      */
     protected abstract Shape getOutline ();
 
+    /**
+     * Returns the outline (which getOutline() has just returned) flattened into a CollisionPolygon. This is only called
+     * when getOutline() returns a different Shape than it did the last time. A CollisionPolygon is never changed once
+     * made, so a subclass whose outlines are shared by all of its instances can override this to return polygons made
+     * once, in advance. The polygon is what collides, while the outline is what is drawn, so a subclass can also
+     * return a polygon that doesn't follow every detail of the outline, such as a flame that flickers on and off.
+     */
+    protected CollisionPolygon getPolygon (Shape outline)
+    {
+        return new CollisionPolygon(outline);
+    }
+
+    /**
+     * Returns the type of Participant, usually one of the marker interfaces in asteroids.destroyers, whose collisions
+     * with this one collidedWith() acts on, or null if it ignores every collision. This must agree with collidedWith(),
+     * since ParticipantState never tests a pair of participants if neither acts on the other. It is only asked once
+     * for each class. Unless overridden, every collision is acted on.
+     */
+    protected Class<?> getCollidesWith ()
+    {
+        return Participant.class;
+    }
+
     /**
      * Takes the appropriate action for a collision of this Participant with p.
      */
@@ -264,43 +537,250 @@ public abstract class Participant
     }
 
     /**
-     * Moves this participant to reflect one tick of the clock.
+     * Moves this participant to reflect one tick of the clock. When there are many participants, they are moved on
+     * several threads at once, so an override must only change this participant; anything that looks at other
+     * participants, uses the game's random numbers, or starts timers belongs in afterMove().
      */
     public void move ()
     {
-        // Get the original outline
-        Shape original = getOutline();
-
         // Change the position to reflect participant motion
-        x += speedX;
-        y += speedY;
+        kinematics.x[slot] += kinematics.speedX[slot];
+        kinematics.y[slot] += kinematics.speedY[slot];
+
+        placeBorder();
+    }
 
-        // Translate and rotate the original to reflect the accumulated motion
-        AffineTransform trans = AffineTransform.getTranslateInstance(x, y);
-        trans.concatenate(AffineTransform.getRotateInstance(rotation));
-        border = trans.createTransformedShape(original);
+    /**
+     * Called once every participant has moved, one participant at a time and in the order they were added, for
+     * whatever this participant does each frame that depends on the rest of the game.
+     */
+    protected void afterMove ()
+    {
+    }
+
+    /**
+     * Does the part of move() that follows the change of position: places the border where the Participant now is, and
+     * wraps the Participant around if it has gone off the screen. The border is the collision polygon rather than the
+     * outline that is drawn, so parts of the outline that getPolygon leaves out don't affect when it wraps.
+     * ParticipantState calls this directly for Participants whose positions it has already advanced in bulk.
+     */
+    void placeBorder ()
+    {
+        placeBorderAt(kinematics.x[slot], kinematics.y[slot], kinematics.rotation[slot]);
 
         // If the element has gone sufficiently far out of bounds, move it to
         // the other side of the screen. This change will take effect next time.
-        Rectangle2D bounds = border.getBounds2D();
         if (bounds.getMaxX() < 0)
         {
-            x += SIZE + (bounds.getMaxX() - bounds.getMinX());
+            kinematics.x[slot] += SIZE + (bounds.getMaxX() - bounds.getMinX());
         }
         if (bounds.getMinX() >= SIZE)
         {
-            x += -SIZE - (bounds.getMaxX() - bounds.getMinX());
+            kinematics.x[slot] += -SIZE - (bounds.getMaxX() - bounds.getMinX());
         }
         if (bounds.getMaxY() < 0)
         {
-            y += SIZE + (bounds.getMaxY() - bounds.getMinY());
+            kinematics.y[slot] += SIZE + (bounds.getMaxY() - bounds.getMinY());
         }
         if (bounds.getMinY() >= SIZE)
         {
-            y += -SIZE - (bounds.getMaxY() - bounds.getMinY());
+            kinematics.y[slot] += -SIZE - (bounds.getMaxY() - bounds.getMinY());
+        }
+    }
+
+    /**
+     * Places the border at the given position and rotation.
+     */
+    private void placeBorderAt (double x, double y, double rotation)
+    {
+        // Get the original outline
+        Shape original = getOutline();
+
+        // Flatten the outline if it has changed
+        if (original != polygonOutline)
+        {
+            polygon = getPolygon(original);
+            polygonOutline = original;
+            if (coordinates == null || coordinates.length < polygon.getCoordinateCount())
+            {
+                coordinates = new double[polygon.getCoordinateCount()];
+            }
+        }
+
+        // A swept Participant remembers where it was, allowing for placeBorder having since wrapped it around the
+        // screen. Anything else, such as being put somewhere new, isn't a sweep.
+        double startX = x, startY = y;
+        if (placed && isSwept())
+        {
+            startX = borderX + wrapShift(bounds.getMinX(), bounds.getMaxX());
+            startY = borderY + wrapShift(bounds.getMinY(), bounds.getMaxY());
+            if (Math.abs(x - startX) > SIZE / 2 || Math.abs(y - startY) > SIZE / 2)
+            {
+                startX = x;
+                startY = y;
+            }
+        }
+
+        // Translate and rotate the points of the original to reflect the accumulated motion
+        transform.setToTranslation(x, y);
+        transform.rotate(rotation);
+        polygon.transform(transform, coordinates);
+        borderX = x;
+        borderY = y;
+        borderRotation = rotation;
+        updateBounds();
+
+        fromX = startX;
+        fromY = startY;
+        double dx = startX - x;
+        double dy = startY - y;
+        sweep = Math.sqrt(dx * dx + dy * dy);
+        if (sweep > 0)
+        {
+            if (sweptBounds == null)
+            {
+                sweptBounds = new Rectangle2D.Double();
+            }
+            sweptBounds.setRect(bounds);
+            sweptBounds.add(bounds.getMinX() + dx, bounds.getMinY() + dy);
+            sweptBounds.add(bounds.getMaxX() + dx, bounds.getMaxY() + dy);
+        }
+    }
+
+    /**
+     * Returns how far placeBorder moves a participant whose bounding box spans from min to max along one axis, in
+     * order to wrap it around the screen.
+     */
+    private static double wrapShift (double min, double max)
+    {
+        if (max < 0)
+        {
+            return SIZE + (max - min);
+        }
+        else if (min >= SIZE)
+        {
+            return -SIZE - (max - min);
+        }
+        return 0;
+    }
+
+    /**
+     * Writes this Participant's expiration, inertness, kinematics, and border to the buffer, followed by whatever
+     * writeState adds.
+     */
+    void save (ByteBuffer out)
+    {
+        out.put((byte) ((expired ? 1 : 0) | (isInert ? 2 : 0) | (placed ? 4 : 0)));
+        out.putDouble(kinematics.x[slot]);
+        out.putDouble(kinematics.y[slot]);
+        out.putDouble(kinematics.speedX[slot]);
+        out.putDouble(kinematics.speedY[slot]);
+        out.putDouble(kinematics.rotation[slot]);
+        if (placed)
+        {
+            out.putDouble(borderX);
+            out.putDouble(borderY);
+            out.putDouble(borderRotation);
+        }
+        writeState(out);
+    }
+
+    /**
+     * Reads back what save wrote. This must be done before the Participant is added to a ParticipantState.
+     */
+    void restore (ByteBuffer in)
+    {
+        int flags = in.get();
+        expired = (flags & 1) != 0;
+        isInert = (flags & 2) != 0;
+        kinematics.x[slot] = in.getDouble();
+        kinematics.y[slot] = in.getDouble();
+        kinematics.speedX[slot] = in.getDouble();
+        kinematics.speedY[slot] = in.getDouble();
+        kinematics.rotation[slot] = in.getDouble();
+        double x = 0, y = 0, rotation = 0;
+        if ((flags & 4) != 0)
+        {
+            x = in.getDouble();
+            y = in.getDouble();
+            rotation = in.getDouble();
+        }
+        readState(in);
+
+        // The border depends on the outline, which readState may have changed
+        if ((flags & 4) != 0)
+        {
+            placeBorderAt(x, y, rotation);
         }
     }
 
+    /**
+     * Writes whatever state a subclass keeps beyond what its constructor is given, so that a saved game can be
+     * restored. Subclasses that override this must call the superclass's version first, and must override readState
+     * to match.
+     */
+    protected void writeState (ByteBuffer out)
+    {
+    }
+
+    /**
+     * Reads back what writeState wrote.
+     */
+    protected void readState (ByteBuffer in)
+    {
+    }
+
+    /**
+     * Sets bounds to the smallest box that contains all of the coordinates of the border.
+     */
+    private void updateBounds ()
+    {
+        double minX = coordinates[0], maxX = minX;
+        double minY = coordinates[1], maxY = minY;
+        int count = polygon.getCoordinateCount();
+        for (int i = 2; i < count; i += 2)
+        {
+            minX = Math.min(minX, coordinates[i]);
+            maxX = Math.max(maxX, coordinates[i]);
+            minY = Math.min(minY, coordinates[i + 1]);
+            maxY = Math.max(maxY, coordinates[i + 1]);
+        }
+        if (bounds == null)
+        {
+            bounds = new Rectangle2D.Double();
+        }
+        bounds.setRect(minX, minY, maxX - minX, maxY - minY);
+        placed = true;
+    }
+
+    /**
+     * Returns the bounding box of the border as of the most recent move, or null if this Participant has never moved.
+     * The box is in screen coordinates and may extend past the edges of the screen.
+     */
+    Rectangle2D getBounds ()
+    {
+        return placed ? bounds : null;
+    }
+
+    /**
+     * Returns the bounding box of everywhere the border has been during the most recent move: the same as getBounds(),
+     * unless this Participant is swept.
+     */
+    Rectangle2D getCollisionBounds ()
+    {
+        return (sweep > 0) ? sweptBounds : getBounds();
+    }
+
+    /**
+     * Reports whether collisions are looked for all along the path of each move, rather than only where the move ends.
+     * This is for small, fast participants, such as bullets, that would otherwise pass right through thin parts of the
+     * others between one frame and the next. Unless overridden, participants aren't swept.
+     */
+    protected boolean isSwept ()
+    {
+        return false;
+    }
+
     /**
      * Transforms the point just like the participant is transformed before it is displayed. This can be used to figure
      * out where some point of the participant is going to be located after it is transformed. (This can be useful for
@@ -308,19 +788,100 @@ public abstract class Participant
      */
     public void transformPoint (Point2D.Double point)
     {
-        AffineTransform trans = AffineTransform.getTranslateInstance(x, y);
-        trans.concatenate(AffineTransform.getRotateInstance(rotation));
-        trans.transform(point, point);
+        transform.setToTranslation(kinematics.x[slot], kinematics.y[slot]);
+        transform.rotate(kinematics.rotation[slot]);
+        transform.transform(point, point);
     }
 
     /**
-     * Reports whether this participant overlaps with p.
+     * Reports whether this participant overlaps with p. If either is swept, also reports whether it passed through the
+     * other during the most recent move.
      */
     public boolean overlaps (Participant p)
     {
-        Area a = new Area(border);
-        a.intersect(new Area(p.border));
-        return !a.isEmpty();
+        // Participants whose bounding circles or bounding boxes are apart can't overlap. Checking this first skips the
+        // detailed test for almost every pair. (The small slack absorbs rounding in the rotated borders.)
+        double dx = p.borderX - borderX;
+        double dy = p.borderY - borderY;
+        double reach = polygon.getRadius() + p.polygon.getRadius() + sweep + p.sweep + 1e-6;
+        if (dx * dx + dy * dy > reach * reach)
+        {
+            return false;
+        }
+        Rectangle2D b1 = getCollisionBounds();
+        Rectangle2D b2 = p.getCollisionBounds();
+        if (b1.getMaxX() < b2.getMinX() || b2.getMaxX() < b1.getMinX() || b1.getMaxY() < b2.getMinY()
+                || b2.getMaxY() < b1.getMinY())
+        {
+            return false;
+        }
+
+        if (areaOverlaps)
+        {
+            Area a = new Area(getBorder());
+            a.intersect(new Area(p.getBorder()));
+            if (!a.isEmpty())
+            {
+                return true;
+            }
+        }
+        else if (CollisionPolygon.overlaps(polygon, coordinates, p.polygon, p.coordinates))
+        {
+            return true;
+        }
+        return (sweep > 0 || p.sweep > 0) && (sweptThrough(p) || p.sweptThrough(this));
+    }
+
+    /**
+     * Reports whether the center of this Participant's border crossed the border of p during the most recent move,
+     * measured relative to p, which is taken to have moved in a straight line without turning.
+     */
+    private boolean sweptThrough (Participant p)
+    {
+        double x1 = fromX - (p.fromX - p.borderX);
+        double y1 = fromY - (p.fromY - p.borderY);
+        if (x1 == borderX && y1 == borderY)
+        {
+            return false;
+        }
+        return CollisionPolygon.crossesEdge(x1, y1, borderX, borderY, p.polygon, p.coordinates);
+    }
+
+    /**
+     * Returns a new Shape that is the outline as it was translated and rotated by the most recent move. If the
+     * Participant has never moved, returns the outline itself.
+     */
+    private Shape getBorder ()
+    {
+        if (polygonOutline == null)
+        {
+            return getOutline();
+        }
+        AffineTransform trans = AffineTransform.getTranslateInstance(borderX, borderY);
+        trans.rotate(borderRotation);
+        return trans.createTransformedShape(polygonOutline);
+    }
+
+    /**
+     * Records what draw() would draw: the outline goes into outlines[i], and the x-coordinate, y-coordinate, and
+     * rotation it is drawn at go into poses[3*i] through poses[3*i+2].
+     */
+    void record (Shape[] outlines, double[] poses, int i)
+    {
+        if (!placed)
+        {
+            outlines[i] = getOutline();
+            poses[3 * i] = 0;
+            poses[3 * i + 1] = 0;
+            poses[3 * i + 2] = 0;
+        }
+        else
+        {
+            outlines[i] = polygonOutline;
+            poses[3 * i] = borderX;
+            poses[3 * i + 1] = borderY;
+            poses[3 * i + 2] = borderRotation;
+        }
     }
 
     /**
@@ -330,10 +891,18 @@ public abstract class Participant
     {
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-        if (border == null)
+        if (polygonOutline == null)
+        {
+            g.draw(getOutline());
+        }
+        else
         {
-            border = getOutline();
+            // Draw the outline through a transformed Graphics rather than building a transformed copy of it
+            AffineTransform saved = g.getTransform();
+            g.translate(borderX, borderY);
+            g.rotate(borderRotation);
+            g.draw(polygonOutline);
+            g.setTransform(saved);
         }
-        g.draw(border);
     }
 }
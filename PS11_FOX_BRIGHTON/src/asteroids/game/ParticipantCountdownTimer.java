@@ -1,23 +1,31 @@
 package asteroids.game;
 
-import javax.swing.*;
-import java.awt.event.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import asteroids.events.GameEvents;
+import asteroids.events.TimerFiredEvent;
 
 /**
  * Provides objects that wait for a certain amount of time to pass before making a callback to a Participant's
- * countdownComplete method.
+ * countdownComplete method. Time is counted in frames by the TimingWheel of the ParticipantState that the Participant
+ * belongs to, so the callback is made during moveParticipants(). If the Participant hasn't been added to a
+ * ParticipantState yet, the countdown starts when it is added. It is still an ActionListener, as it was when it ran on
+ * a Swing timer, so code that hands it a Swing timer's events keeps working.
  */
-public class ParticipantCountdownTimer implements ActionListener
+public class ParticipantCountdownTimer extends TimingWheel.Entry implements ActionListener
 {
     /** Payload that is passed to the countdownComplete method when it is called */
     private Object payload;
 
-    /** Internal timer */
-    private Timer timer;
+    /** Number of frames to wait */
+    private int ticks;
 
     /** Participant to be notified when time expires */
     private Participant participant;
 
+    /** The generation of the participant when the countdown started; if it has been reused since, nothing happens */
+    private int generation;
+
     /**
      * Constructs an object that waits for the given number of milliseconds to pass before invoking the
      * countdownComplete method on p, passing null as its parameter. The call is not made if p has expired.
@@ -32,23 +40,127 @@ public class ParticipantCountdownTimer implements ActionListener
      * countdownComplete method on p, passing the payload as its parameter. The call is not made if p has expired.
      */
     public ParticipantCountdownTimer (Participant p, Object payload, int msecs)
+    {
+        this(p, payload);
+        this.ticks = TimingWheel.toTicks(msecs);
+        p.startTimer(this);
+    }
+
+    /**
+     * Constructs a timer without starting it.
+     */
+    private ParticipantCountdownTimer (Participant p, Object payload)
     {
         this.participant = p;
         this.payload = payload;
-        timer = new Timer(msecs, this);
-        timer.start();
     }
 
     /**
-     * When the interval has passed, stops the timer and makes the callback, as long as the participant has not expired.
+     * Constructs a timer for a restored game that waits the given number of frames once started. It is not started;
+     * the caller puts it back on the TimingWheel where it was.
+     */
+    static ParticipantCountdownTimer restore (Participant p, Object payload, int ticks)
+    {
+        ParticipantCountdownTimer t = new ParticipantCountdownTimer(p, payload);
+        t.ticks = ticks;
+        t.generation = p.generation;
+        return t;
+    }
+
+    /**
+     * Returns the number of frames that the timer waits.
+     */
+    int getTicks ()
+    {
+        return ticks;
+    }
+
+    /**
+     * Records the generation of the participant as the countdown starts.
+     */
+    void setGeneration (int generation)
+    {
+        this.generation = generation;
+    }
+
+    /**
+     * Reports whether the participant is still the one the countdown was started for, rather than having expired and
+     * been reused since.
+     */
+    boolean isCurrent ()
+    {
+        return participant.generation == generation;
+    }
+
+    /**
+     * Returns the Participant to be notified.
+     */
+    Participant getParticipant ()
+    {
+        return participant;
+    }
+
+    /**
+     * Returns the payload to be passed to countdownComplete.
+     */
+    Object getPayload ()
+    {
+        return payload;
+    }
+
+    /**
+     * Starts the countdown over from the beginning, even if it has already completed.
+     */
+    public void restart ()
+    {
+        participant.startTimer(this);
+    }
+
+    /**
+     * Starts the countdown over, this time waiting the given number of milliseconds, even if it has already completed.
+     * A participant that keeps doing something periodically can keep one timer for it this way, instead of
+     * constructing a new one each time.
+     */
+    public void restart (int msecs)
+    {
+        ticks = TimingWheel.toTicks(msecs);
+        participant.startTimer(this);
+    }
+
+    /**
+     * Stops the countdown so that the callback is never made.
+     */
+    public void cancel ()
+    {
+        participant.stopTimer(this);
+    }
+
+    /**
+     * Stops the countdown and makes the callback now, as the Swing timer that the countdown used to run on did when the
+     * interval had passed, as long as the participant has not expired (or expired and been reused).
      */
     @Override
     public void actionPerformed (ActionEvent e)
     {
-        timer.stop();
-        if (!participant.isExpired())
+        cancel();
+        fire();
+    }
+
+    /**
+     * When the interval has passed, makes the callback, as long as the participant has not expired (or expired and
+     * been reused).
+     */
+    @Override
+    protected void fire ()
+    {
+        if (!participant.isExpired() && isCurrent())
         {
+            TimerFiredEvent event = GameEvents.isEnabled() ? new TimerFiredEvent() : null;
             participant.countdownComplete(payload);
+            if (event != null)
+            {
+                event.finish(participant.getClass(), payload);
+            }
         }
     }
 }
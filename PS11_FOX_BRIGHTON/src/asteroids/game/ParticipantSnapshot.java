@@ -0,0 +1,79 @@
+package asteroids.game;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.util.Arrays;
+
+/**
+ * An unchangeable picture of the unexpired participants as of the end of a frame. It records what each participant's
+ * draw method would draw, so it can be drawn on the Swing event thread while the next frame is being computed on
+ * another thread.
+ */
+public class ParticipantSnapshot
+{
+    /** A snapshot with no participants in it */
+    public static final ParticipantSnapshot EMPTY = new ParticipantSnapshot();
+
+    /** The outline of each participant */
+    private final Shape[] outlines;
+
+    /** The x-coordinate, y-coordinate, and rotation of each participant's outline, three per participant */
+    private final double[] poses;
+
+    /**
+     * Creates an empty snapshot.
+     */
+    private ParticipantSnapshot ()
+    {
+        outlines = new Shape[0];
+        poses = new double[0];
+    }
+
+    /**
+     * Takes a snapshot of the unexpired participants in state, including those waiting to be added.
+     */
+    public ParticipantSnapshot (ParticipantState state)
+    {
+        Shape[] outlines = new Shape[16];
+        double[] poses = new double[3 * outlines.length];
+        int count = 0;
+        for (Participant p : state)
+        {
+            if (count == outlines.length)
+            {
+                outlines = Arrays.copyOf(outlines, 2 * count);
+                poses = Arrays.copyOf(poses, 6 * count);
+            }
+            p.record(outlines, poses, count++);
+        }
+        this.outlines = Arrays.copyOf(outlines, count);
+        this.poses = Arrays.copyOf(poses, 3 * count);
+    }
+
+    /**
+     * Returns the number of participants in the snapshot.
+     */
+    public int size ()
+    {
+        return outlines.length;
+    }
+
+    /**
+     * Draws the participants just as their draw methods would have.
+     */
+    public void draw (Graphics2D g)
+    {
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        AffineTransform saved = g.getTransform();
+        for (int i = 0; i < outlines.length; i++)
+        {
+            g.translate(poses[3 * i], poses[3 * i + 1]);
+            g.rotate(poses[3 * i + 2]);
+            g.draw(outlines[i]);
+            g.setTransform(saved);
+        }
+    }
+}
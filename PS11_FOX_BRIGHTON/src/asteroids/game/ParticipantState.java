@@ -1,21 +1,157 @@
 package asteroids.game;
 
-import java.util.HashSet;
+import static asteroids.game.Constants.*;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.Map;
 import java.util.NoSuchElementException;
-import java.util.Set;
+import java.util.concurrent.RecursiveAction;
+import asteroids.events.CollisionPhaseEvent;
+import asteroids.events.GameEvents;
+import asteroids.events.ParticipantSpawnEvent;
 
 /**
  * Keeps track of the Participants, their motions, and their collisions.
  */
 public class ParticipantState implements Iterable<Participant>
 {
-    /** The participants (asteroids, ships, etc.) that are involved in the game */
-    private LinkedList<Participant> participants;
+    /** Number of cells along each side of the collision grid */
+    private static final int GRID_CELLS = 15;
 
-    /** Participants that are waiting to be added to the game */
-    private Set<Participant> pendingAdds;
+    /** Width and height in pixels of each cell of the collision grid */
+    private static final double CELL_SIZE = (double) SIZE / GRID_CELLS;
+
+    /**
+     * Number of participants at which the collision grid starts to beat comparing every pair, as measured by
+     * asteroids.benchmarks.CollisionBenchmark.
+     */
+    public static final int GRID_THRESHOLD = 64;
+
+    /**
+     * Number of participants at which moving them and finding their collisions is split over the threads of a
+     * ForkJoinPool, as measured by asteroids.benchmarks.ParallelFrameBenchmark.
+     */
+    public static final int PARALLEL_THRESHOLD = 2048;
+
+    /** Largest number of participants that one task moves without splitting them further */
+    private static final int MOVE_CHUNK = 512;
+
+    /** Largest number of participants whose collisions one task looks for without splitting them further */
+    private static final int DETECTION_CHUNK = 128;
+
+    /** Largest number of expired participants of each class that are kept for reuse */
+    private static final int POOL_LIMIT = 256;
+
+    /**
+     * For each class of Participant, whether its position can be advanced in bulk. This is so when the class leaves
+     * move() alone, since then nothing else happens between one frame's change of position and the next.
+     */
+    private static final ClassValue<Boolean> ADVANCED_IN_BULK = new ClassValue<Boolean>()
+    {
+        @Override
+        protected Boolean computeValue (Class<?> type)
+        {
+            try
+            {
+                return type.getMethod("move").getDeclaringClass() == Participant.class;
+            }
+            catch (NoSuchMethodException e)
+            {
+                return false;
+            }
+        }
+    };
+
+    /** The participants (asteroids, ships, etc.) that are involved in the game, in the order they were added */
+    private Participant[] participants;
+
+    /** Number of entries at the front of participants that are in use */
+    private int count;
+
+    /**
+     * Indexes (into participants), in increasing order, of the participants that the collision checks look at: those
+     * that aren't inert and that can interact with some kind of participant
+     */
+    private int[] collidable;
+
+    /** Number of entries at the front of collidable that are in use */
+    private int collidableCount;
+
+    /** True if collidable needs to be worked out again before the next collision checks */
+    private boolean collidableStale;
+
+    /** The CollisionMatrix that collidable was worked out with */
+    private long[] collidableMatrix;
+
+    /** Participants that are waiting to be added to the game, in the order they were added */
+    private Participant[] pendingAdds;
+
+    /** Number of entries at the front of pendingAdds that are in use */
+    private int pendingCount;
+
+    /**
+     * If non-null, holds the positions, velocities, and rotations of the participants. The slot of each participant is
+     * its index in participants.
+     */
+    private KinematicsStore kinematics;
+
+    /** Counts frames and fires the participants' countdown timers */
+    private TimingWheel timers;
+
+    /** Number of participants at which collisions are found with the grid instead of by comparing every pair */
+    private int gridThreshold;
+
+    /** Number of participants at which they are moved, and their collisions found, on several threads at once */
+    private int parallelThreshold;
+
+    /** For each cell of the collision grid, the indexes (into participants) of the participants that touch the cell */
+    private int[][] cells;
+
+    /** Number of indexes stored in each cell of the collision grid */
+    private int[] cellCounts;
+
+    /** Indexes of the participants that share a cell with the participant being checked */
+    private int[] candidates;
+
+    /** For each index, one more than the index of the last participant that listed it as a candidate */
+    private int[] stamps;
+
+    /** The CollisionMatrix as of the start of the current frame's collision checks */
+    private long[] matrix;
+
+    /** Number of pairs of participants tested for a collision during the current frame */
+    private int pairsTested;
+
+    /** Number of the tested pairs that collided */
+    private int collisions;
+
+    /** If non-null, the phases of each frame are timed and the collision checks counted here */
+    private volatile FrameMetrics metrics;
+
+    /** For each class of reusable participant, the expired ones that have been removed and can be reused */
+    private Map<Class<?>, ArrayDeque<Participant>> pools;
+
+    /** For each class of participant, how many unexpired ones there are, counting those waiting to be added */
+    private Map<Class<?>, int[]> populations;
+
+    /**
+     * The classes that have counters in populations, in the order they were first seen, so that count() can go
+     * through them without allocating an iterator
+     */
+    private ArrayList<Class<?>> populationTypes;
+
+    /** The counters of populationTypes, in the same order */
+    private ArrayList<int[]> populationCounts;
+
+    /** Reusable participants removed by clear(), which are kept for reuse once the frame's collisions are dealt with */
+    private Participant[] retired;
+
+    /** Number of participants in retired */
+    private int retiredCount;
 
     /**
      * Creates an empty ParticipantState.
@@ -23,21 +159,175 @@ public class ParticipantState implements Iterable<Participant>
     public ParticipantState ()
     {
         // No participants at the start
-        participants = new LinkedList<Participant>();
-        pendingAdds = new HashSet<Participant>();
+        participants = new Participant[16];
+        count = 0;
+        collidable = new int[16];
+        collidableCount = 0;
+        pendingAdds = new Participant[16];
+        pendingCount = 0;
+        kinematics = new KinematicsStore(16);
+        timers = new TimingWheel();
+
+        // Set up an empty collision grid
+        gridThreshold = GRID_THRESHOLD;
+        parallelThreshold = PARALLEL_THRESHOLD;
+        cells = new int[GRID_CELLS * GRID_CELLS][4];
+        cellCounts = new int[GRID_CELLS * GRID_CELLS];
+        candidates = new int[0];
+        stamps = new int[0];
+
+        pools = new IdentityHashMap<>();
+        populations = new IdentityHashMap<>();
+        populationTypes = new ArrayList<>();
+        populationCounts = new ArrayList<>();
+        retired = new Participant[16];
+        retiredCount = 0;
     }
 
     /**
-     * Clears out the state.
+     * Times the phases of each frame with the given FrameMetrics, or stops timing them if it is null. The owner of the
+     * metrics starts and ends the frames around moveParticipants(), and hands them over only once a frame has been
+     * started, so that every phase is measured from the start of its frame.
+     */
+    public void setMetrics (FrameMetrics metrics)
+    {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Sets the number of participants at which collisions start being found with the collision grid instead of by
+     * comparing every pair of participants. Use 0 to always use the grid and Integer.MAX_VALUE to never use it.
+     */
+    public void setGridThreshold (int threshold)
+    {
+        gridThreshold = threshold;
+    }
+
+    /**
+     * Sets the number of participants at which they start being moved, and their collisions found, on several threads
+     * at once. Use 0 to always do so and Integer.MAX_VALUE to never do so. The game plays out the same either way.
+     */
+    public void setParallelThreshold (int threshold)
+    {
+        parallelThreshold = threshold;
+    }
+
+    /**
+     * Returns the TimingWheel that counts this state's frames. It moves on by one tick at the start of each call to
+     * moveParticipants().
+     */
+    TimingWheel getTimingWheel ()
+    {
+        return timers;
+    }
+
+    /**
+     * Chooses whether the participants' positions, velocities, and rotations are kept together in one store, so that
+     * moveParticipants() can advance most of the positions in a single pass. If not, each participant keeps its own.
+     * The participants move the same way either way.
+     */
+    public void setSharedKinematics (boolean shared)
+    {
+        if (shared && kinematics == null)
+        {
+            kinematics = new KinematicsStore(Math.max(16, count));
+            for (int i = 0; i < count; i++)
+            {
+                attach(participants[i], i);
+            }
+        }
+        else if (!shared && kinematics != null)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                participants[i].detach();
+            }
+            kinematics = null;
+        }
+    }
+
+    /**
+     * Moves the kinematics of p into the given slot of the shared store.
+     */
+    private void attach (Participant p, int slot)
+    {
+        p.attach(kinematics, slot);
+        kinematics.step[slot] = (!p.isExpired() && ADVANCED_IN_BULK.get(p.getClass())) ? 1 : 0;
+    }
+
+    /**
+     * Clears out the state, expiring the participants, including any still waiting to be added so that their countdowns
+     * don't go off later. This can happen while collisions are being dealt with, and the participants still to be dealt
+     * with must stay expired, so they are only kept for reuse the next time adds and removes are completed.
      */
     public void clear ()
     {
-        pendingAdds.clear();
-        for (Participant p : participants)
+        for (int i = 0; i < pendingCount; i++)
         {
-            Participant.expire(p);
+            Participant.expire(pendingAdds[i]);
+            retire(pendingAdds[i]);
+        }
+        Arrays.fill(pendingAdds, 0, pendingCount, null);
+        pendingCount = 0;
+        for (int i = 0; i < count; i++)
+        {
+            Participant.expire(participants[i]);
+            if (kinematics != null)
+            {
+                participants[i].detach();
+            }
+            retire(participants[i]);
+        }
+        Arrays.fill(participants, 0, count, null);
+        count = 0;
+        collidableCount = 0;
+    }
+
+    /**
+     * Returns an expired participant of exactly the given class that has been removed from this state and can be set
+     * up again and added back, or null if there are none. Participants are only kept for reuse if their classes say
+     * they can be, with isReusable().
+     */
+    public <T extends Participant> T reuse (Class<T> type)
+    {
+        ArrayDeque<Participant> pool = pools.get(type);
+        return (pool == null) ? null : type.cast(pool.pollLast());
+    }
+
+    /**
+     * Holds on to p, which clear() has removed, until it can be kept for reuse, if its class allows it.
+     */
+    private void retire (Participant p)
+    {
+        if (p.isReusable())
+        {
+            if (retiredCount == retired.length)
+            {
+                retired = Arrays.copyOf(retired, 2 * retiredCount);
+            }
+            retired[retiredCount++] = p;
+        }
+    }
+
+    /**
+     * Keeps p, which has expired and been removed, for reuse if its class allows it.
+     */
+    private void recycle (Participant p)
+    {
+        if (p.isReusable())
+        {
+            ArrayDeque<Participant> pool = pools.get(p.getClass());
+            if (pool == null)
+            {
+                pool = new ArrayDeque<>();
+                pools.put(p.getClass(), pool);
+            }
+            if (pool.size() < POOL_LIMIT)
+            {
+                p.prepareForReuse();
+                pool.addLast(p);
+            }
         }
-        participants.clear();
     }
 
     /**
@@ -45,7 +335,113 @@ public class ParticipantState implements Iterable<Participant>
      */
     public void addParticipant (Participant p)
     {
-        pendingAdds.add(p);
+        if (pendingCount == pendingAdds.length)
+        {
+            pendingAdds = Arrays.copyOf(pendingAdds, 2 * pendingCount);
+        }
+        pendingAdds[pendingCount++] = p;
+        p.setState(this);
+        if (!p.isExpired())
+        {
+            populationOf(p.getClass())[0]++;
+        }
+        if (p.collisionKind == CollisionMatrix.UNKNOWN)
+        {
+            p.collisionKind = CollisionMatrix.kindOf(p);
+        }
+    }
+
+    /**
+     * Returns the number of participants in the game, not counting those waiting to be added.
+     */
+    int getCount ()
+    {
+        return count;
+    }
+
+    /**
+     * Returns participant i of the game, in the order they were added.
+     */
+    Participant getParticipant (int i)
+    {
+        return participants[i];
+    }
+
+    /**
+     * Returns the number of participants waiting to be added to the game.
+     */
+    int getPendingCount ()
+    {
+        return pendingCount;
+    }
+
+    /**
+     * Returns participant i of those waiting to be added.
+     */
+    Participant getPendingParticipant (int i)
+    {
+        return pendingAdds[i];
+    }
+
+    /**
+     * Puts a participant from a saved game straight into the game, after those already there, instead of waiting for
+     * the next frame as addParticipant does.
+     */
+    void restoreParticipant (Participant p)
+    {
+        if (count == participants.length)
+        {
+            participants = Arrays.copyOf(participants, 2 * count);
+        }
+        if (kinematics != null)
+        {
+            kinematics.ensureCapacity(count + 1);
+            attach(p, count);
+        }
+        participants[count++] = p;
+        p.setState(this);
+        if (!p.isExpired())
+        {
+            populationOf(p.getClass())[0]++;
+        }
+        if (p.collisionKind == CollisionMatrix.UNKNOWN)
+        {
+            p.collisionKind = CollisionMatrix.kindOf(p);
+        }
+        collidableStale = true;
+    }
+
+    /**
+     * Returns a hash of the kind, position, rotation, and velocity of every active participant, along with the frame
+     * count. Two games that are in the same state have the same checksum, so comparing checksums frame by frame shows
+     * where a replayed game starts to differ from the original.
+     */
+    public long checksum ()
+    {
+        long h = timers.getTick();
+        for (int i = 0; i < count; i++)
+        {
+            Participant p = participants[i];
+            if (!p.isExpired())
+            {
+                h = mix(h, p.getClass().getName().hashCode());
+                h = mix(h, Double.doubleToLongBits(p.getX()));
+                h = mix(h, Double.doubleToLongBits(p.getY()));
+                h = mix(h, Double.doubleToLongBits(p.getRotation()));
+                h = mix(h, Double.doubleToLongBits(p.getSpeed()));
+                h = mix(h, Double.doubleToLongBits(p.getDirection()));
+            }
+        }
+        return mix(h, count);
+    }
+
+    /**
+     * Combines a hash with one more value so that every bit of the value affects every bit of the result.
+     */
+    static long mix (long h, long value)
+    {
+        h = (h ^ value) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 31);
     }
 
     /**
@@ -53,22 +449,125 @@ public class ParticipantState implements Iterable<Participant>
      */
     public void moveParticipants ()
     {
-        // Move all of the active participants
-        for (Participant p : participants)
+        // Fire the countdown timers that are due
+        FrameMetrics timing = metrics;
+        timers.advance();
+        if (timing != null)
+        {
+            timing.mark(FrameMetrics.Phase.TIMERS);
+        }
+
+        // Move all of the active participants. If the kinematics are shared, the positions of the participants that
+        // don't override move() are all advanced first, and then only the rest of their moves is done one at a time.
+        // Each move only changes its own participant, so when there are enough of them they are split over threads.
+        if (kinematics != null)
+        {
+            kinematics.integrate(count);
+        }
+        if (count >= parallelThreshold)
+        {
+            new Moves(0, count).invoke();
+        }
+        else
+        {
+            moveRange(0, count);
+        }
+
+        // Then, one at a time and in order, let them do whatever depends on the rest of the game
+        for (int i = 0; i < count; i++)
         {
+            Participant p = participants[i];
             if (!p.isExpired())
             {
-                p.move();
+                p.afterMove();
             }
         }
 
+        if (timing != null)
+        {
+            timing.mark(FrameMetrics.Phase.MOVE);
+        }
+
         // If there have been any collisions, deal with them. This may result
         // in new participants being added or old ones expiring. We save those
         // changes until after all of the collisions have been processed.
+        CollisionPhaseEvent event = GameEvents.isEnabled() ? new CollisionPhaseEvent() : null;
         checkForCollisions();
+        if (event != null)
+        {
+            event.finish(count, pairsTested, collisions);
+        }
+        if (timing != null)
+        {
+            timing.mark(FrameMetrics.Phase.COLLISIONS);
+            timing.countCollisions(pairsTested, collisions);
+        }
 
         // Deal with pending adds and expirations
         completeAddsAndRemoves();
+        if (timing != null)
+        {
+            timing.mark(FrameMetrics.Phase.ADDS_REMOVES);
+        }
+    }
+
+    /**
+     * Moves the active participants from index from through to - 1.
+     */
+    private void moveRange (int from, int to)
+    {
+        for (int i = from; i < to; i++)
+        {
+            Participant p = participants[i];
+            if (!p.isExpired())
+            {
+                if (kinematics != null && kinematics.step[i] != 0)
+                {
+                    p.placeBorder();
+                }
+                else
+                {
+                    p.move();
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves a range of the participants, splitting it in half until the pieces are no bigger than MOVE_CHUNK so that
+     * idle threads can steal them.
+     */
+    @SuppressWarnings("serial")
+    private class Moves extends RecursiveAction
+    {
+        /** First participant of the range */
+        private final int from;
+
+        /** One past the last participant of the range */
+        private final int to;
+
+        /**
+         * Creates a task that moves participants from through to - 1.
+         */
+        Moves (int from, int to)
+        {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute ()
+        {
+            if (to - from <= MOVE_CHUNK)
+            {
+                moveRange(from, to);
+            }
+            else
+            {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Moves(from, middle), new Moves(middle, to));
+            }
+        }
     }
 
     /**
@@ -78,21 +577,164 @@ public class ParticipantState implements Iterable<Participant>
     {
         // Note: These updates are saved up and done later to avoid modifying
         // the participants list while it is being iterated over
-        for (Participant p : pendingAdds)
+        for (int i = 0; i < retiredCount; i++)
         {
-            participants.add(p);
+            recycle(retired[i]);
         }
-        pendingAdds.clear();
+        Arrays.fill(retired, 0, retiredCount, null);
+        retiredCount = 0;
+        if (count + pendingCount > participants.length)
+        {
+            participants = Arrays.copyOf(participants, Math.max(2 * participants.length, count + pendingCount));
+        }
+        System.arraycopy(pendingAdds, 0, participants, count, pendingCount);
+        int added = count;
+        count += pendingCount;
+        Arrays.fill(pendingAdds, 0, pendingCount, null);
+        pendingCount = 0;
 
-        Iterator<Participant> iter = participants.iterator();
-        while (iter.hasNext())
+        // Slide the unexpired participants down over the expired ones, keeping them in order. The shared kinematics,
+        // if any, slide along with them. Expired participants take their kinematics with them.
+        if (kinematics != null)
+        {
+            kinematics.ensureCapacity(count);
+        }
+        boolean traced = GameEvents.isEnabled();
+        long[] matrix = CollisionMatrix.get();
+        if (collidable.length < count)
+        {
+            collidable = new int[participants.length];
+        }
+        collidableCount = 0;
+        int live = 0;
+        for (int i = 0; i < count; i++)
         {
-            Participant p = iter.next();
-            if (p.isExpired())
+            Participant p = participants[i];
+            if (!p.isExpired())
             {
-                iter.remove();
+                if (kinematics != null && (live != i || i >= added))
+                {
+                    attach(p, live);
+                }
+                if (traced && i >= added)
+                {
+                    ParticipantSpawnEvent.emit(p.getClass());
+                }
+                if (isCollidable(matrix, p))
+                {
+                    collidable[collidableCount++] = live;
+                }
+                participants[live++] = p;
+            }
+            else
+            {
+                if (kinematics != null && i < added)
+                {
+                    p.detach();
+                }
+                recycle(p);
             }
         }
+        Arrays.fill(participants, live, count, null);
+        count = live;
+        collidableMatrix = matrix;
+        collidableStale = false;
+    }
+
+    /**
+     * Records that a participant of this state has expired, so that it is no longer counted.
+     */
+    void participantExpired (Participant p)
+    {
+        populationOf(p.getClass())[0]--;
+    }
+
+    /**
+     * Returns the counter of the unexpired participants of exactly the given class, creating it if need be.
+     */
+    private int[] populationOf (Class<?> type)
+    {
+        int[] population = populations.get(type);
+        if (population == null)
+        {
+            population = new int[1];
+            populations.put(type, population);
+            populationTypes.add(type);
+            populationCounts.add(population);
+        }
+        return population;
+    }
+
+    /**
+     * Returns the number of unexpired participants that are of the given type, including those waiting to be added.
+     * This is what counting them with an iteration would give, but it is kept up to date as participants are added
+     * and expire, so it takes time in proportion to the number of classes of participant rather than to the number of
+     * participants.
+     */
+    public int count (Class<?> type)
+    {
+        int total = 0;
+        for (int i = 0; i < populationTypes.size(); i++)
+        {
+            if (type.isAssignableFrom(populationTypes.get(i)))
+            {
+                total += populationCounts.get(i)[0];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Returns the unexpired participants that are of the given type, including those waiting to be added, in the
+     * order that iterating over this state would give them.
+     */
+    public <T> Iterable<T> ofType (Class<T> type)
+    {
+        return () -> new TypeIterator<>(type);
+    }
+
+    /**
+     * Records that a participant has become inert or stopped being inert, so that the collision checks will take it
+     * into account. The participants that the collision checks look at are worked out again, once, before the checks.
+     */
+    void inertChanged ()
+    {
+        collidableStale = true;
+    }
+
+    /**
+     * Works out which participants the collision checks look at, if anything has changed since it was last done.
+     * That includes the CollisionMatrix, since a new kind of participant can make another one collidable.
+     */
+    private void updateCollidable ()
+    {
+        long[] matrix = CollisionMatrix.get();
+        if (collidableStale || matrix != collidableMatrix)
+        {
+            if (collidable.length < count)
+            {
+                collidable = new int[participants.length];
+            }
+            collidableCount = 0;
+            for (int i = 0; i < count; i++)
+            {
+                if (!participants[i].isExpired() && isCollidable(matrix, participants[i]))
+                {
+                    collidable[collidableCount++] = i;
+                }
+            }
+            collidableMatrix = matrix;
+            collidableStale = false;
+        }
+    }
+
+    /**
+     * Reports whether the collision checks need to look at p: whether it isn't inert and there is some kind of
+     * participant, itself included, that it can interact with.
+     */
+    private static boolean isCollidable (long[] matrix, Participant p)
+    {
+        return !p.isInert() && (p.collisionKind >= matrix.length || matrix[p.collisionKind] != 0);
     }
 
     /**
@@ -101,20 +743,99 @@ public class ParticipantState implements Iterable<Participant>
      */
     private void checkForCollisions ()
     {
-        for (Participant p1 : participants)
+        pairsTested = 0;
+        collisions = 0;
+        updateCollidable();
+        matrix = collidableMatrix;
+        if (collidableCount >= parallelThreshold)
+        {
+            checkForCollisionsInParallel();
+        }
+        else if (collidableCount >= gridThreshold)
+        {
+            checkForCollisionsInGrid();
+        }
+        else
+        {
+            checkAllPairs();
+        }
+    }
+
+    /**
+     * Reports whether either of the participants acts on colliding with the other, so that it is worth testing whether
+     * they overlap.
+     */
+    private boolean interact (Participant p1, Participant p2)
+    {
+        return CollisionMatrix.interact(matrix, p1.collisionKind, p2.collisionKind);
+    }
+
+    /**
+     * Detects collisions by comparing every pair of collidable participants.
+     */
+    private void checkAllPairs ()
+    {
+        for (int a = 0; a < collidableCount; a++)
         {
+            Participant p1 = participants[collidable[a]];
             if (!p1.isExpired() && !p1.isInert())
             {
-                Iterator<Participant> iter = participants.descendingIterator();
-                while (iter.hasNext())
+                for (int b = collidableCount - 1; b > a; b--)
                 {
-                    Participant p2 = iter.next();
-                    if (p1 == p2)
+                    Participant p2 = participants[collidable[b]];
+                    if (!p2.isExpired() && !p2.isInert() && interact(p1, p2))
+                    {
+                        pairsTested++;
+                        if (p1.overlaps(p2))
+                        {
+                            collisions++;
+                            p1.collidedWith(p2);
+                            p2.collidedWith(p1);
+                        }
+                    }
+                    if (p1.isExpired())
                         break;
-                    if (!p2.isExpired() && !p2.isInert() && p1.overlaps(p2))
+                }
+            }
+        }
+    }
+
+    /**
+     * Detects collisions by comparing only participants whose bounding boxes share a cell of the collision grid. The
+     * grid wraps around at the edges of the screen, just like the participants do. The pairs are dealt with in exactly
+     * the same order as checkAllPairs would deal with them, so the outcome is the same.
+     */
+    private void checkForCollisionsInGrid ()
+    {
+        int n = count;
+        if (candidates.length < n)
+        {
+            candidates = new int[participants.length];
+            stamps = new int[participants.length];
+        }
+        Arrays.fill(stamps, 0, n, 0);
+        fillGrid();
+
+        // Compare each participant with the later participants that share one of its cells, latest first
+        for (int a = 0; a < collidableCount; a++)
+        {
+            int i = collidable[a];
+            Participant p1 = participants[i];
+            if (!p1.isExpired() && !p1.isInert() && p1.getBounds() != null)
+            {
+                int found = findCandidates(i);
+                for (int k = found - 1; k >= 0; k--)
+                {
+                    Participant p2 = participants[candidates[k]];
+                    if (!p2.isExpired() && !p2.isInert() && interact(p1, p2))
                     {
-                        p1.collidedWith(p2);
-                        p2.collidedWith(p1);
+                        pairsTested++;
+                        if (p1.overlaps(p2))
+                        {
+                            collisions++;
+                            p1.collidedWith(p2);
+                            p2.collidedWith(p1);
+                        }
                     }
                     if (p1.isExpired())
                         break;
@@ -122,6 +843,282 @@ public class ParticipantState implements Iterable<Participant>
             }
         }
     }
+
+    /**
+     * Finds the overlapping pairs of participants on several threads, and then deals with them one at a time in exactly
+     * the same order as checkAllPairs would. Finding the pairs only reads the participants, so it can be split up;
+     * dealing with them changes the game, so it can't. Since each task finds its pairs in the serial order, and the
+     * tasks' pairs are joined in the order of their ranges, the pairs come out in the serial order without sorting.
+     */
+    private void checkForCollisionsInParallel ()
+    {
+        boolean grid = collidableCount >= gridThreshold;
+        if (grid)
+        {
+            fillGrid();
+        }
+        Detection detection = new Detection(grid, 0, collidableCount);
+        detection.invoke();
+        pairsTested = detection.tested;
+
+        // A pair that overlapped when the pairs were found is skipped if either member has since been destroyed by an
+        // earlier collision, just as the serial loops would never have tested it. If a collision ends the level and
+        // clears out the state, the serial loops stop, and so does this one.
+        long[] pairs = detection.pairs;
+        for (int k = 0; k < detection.found && count > 0; k++)
+        {
+            Participant p1 = participants[(int) (pairs[k] >>> 32)];
+            Participant p2 = participants[(int) pairs[k]];
+            if (!p1.isExpired() && !p1.isInert() && !p2.isExpired() && !p2.isInert())
+            {
+                collisions++;
+                p1.collidedWith(p2);
+                p2.collidedWith(p1);
+            }
+        }
+    }
+
+    /**
+     * Looks for the overlapping pairs among a range of the collidable participants and the collidable participants
+     * after them, splitting the range in half until the pieces are no bigger than DETECTION_CHUNK so that idle threads
+     * can steal them.
+     */
+    @SuppressWarnings("serial")
+    private class Detection extends RecursiveAction
+    {
+        /** Whether the collision grid has been filled in and should be used to find the pairs worth testing */
+        private final boolean grid;
+
+        /** First entry of collidable in the range */
+        private final int from;
+
+        /** One past the last entry of collidable in the range */
+        private final int to;
+
+        /**
+         * The overlapping pairs, in the order that the serial loops would deal with them. Each pair is the index of its
+         * first participant shifted left by 32 bits, plus the index of its second participant.
+         */
+        long[] pairs;
+
+        /** Number of entries at the front of pairs that are in use */
+        int found;
+
+        /** Number of pairs tested */
+        int tested;
+
+        /** Indexes of the participants that share a cell with the participant being checked */
+        private int[] nearby;
+
+        /**
+         * Creates a task that looks for collisions of the participants in entries from through to - 1 of collidable.
+         */
+        Detection (boolean grid, int from, int to)
+        {
+            this.grid = grid;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute ()
+        {
+            if (to - from <= DETECTION_CHUNK)
+            {
+                pairs = new long[16];
+                detect();
+            }
+            else
+            {
+                int middle = (from + to) >>> 1;
+                Detection first = new Detection(grid, from, middle);
+                Detection second = new Detection(grid, middle, to);
+                invokeAll(first, second);
+                found = first.found + second.found;
+                pairs = Arrays.copyOf(first.pairs, found);
+                System.arraycopy(second.pairs, 0, pairs, first.found, second.found);
+                tested = first.tested + second.tested;
+            }
+        }
+
+        /**
+         * Tests each participant in the range against the later collidable participants, latest first, as the serial
+         * loops do.
+         */
+        private void detect ()
+        {
+            for (int a = from; a < to; a++)
+            {
+                int i = collidable[a];
+                Participant p1 = participants[i];
+                if (p1.isExpired() || p1.isInert() || p1.getBounds() == null)
+                {
+                    continue;
+                }
+                if (grid)
+                {
+                    for (int k = findNearby(i) - 1; k >= 0; k--)
+                    {
+                        test(i, nearby[k]);
+                    }
+                }
+                else
+                {
+                    for (int b = collidableCount - 1; b > a; b--)
+                    {
+                        test(i, collidable[b]);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Tests whether participants i and j overlap, recording the pair if so.
+         */
+        private void test (int i, int j)
+        {
+            Participant p2 = participants[j];
+            if (!p2.isExpired() && !p2.isInert() && interact(participants[i], p2))
+            {
+                tested++;
+                if (participants[i].overlaps(p2))
+                {
+                    if (found == pairs.length)
+                    {
+                        pairs = Arrays.copyOf(pairs, 2 * found);
+                    }
+                    pairs[found++] = ((long) i << 32) | j;
+                }
+            }
+        }
+
+        /**
+         * Fills nearby, in increasing order and without repeats, with the indexes greater than i of the participants
+         * that share a grid cell with participant i. Returns the number of them. This works like findCandidates, but
+         * without the stamps that several tasks would have to share.
+         */
+        private int findNearby (int i)
+        {
+            Rectangle2D b = participants[i].getCollisionBounds();
+            int minCol = cellOf(b.getMinX());
+            int maxCol = Math.min(cellOf(b.getMaxX()), minCol + GRID_CELLS - 1);
+            int minRow = cellOf(b.getMinY());
+            int maxRow = Math.min(cellOf(b.getMaxY()), minRow + GRID_CELLS - 1);
+
+            int n = 0;
+            for (int row = minRow; row <= maxRow; row++)
+            {
+                for (int col = minCol; col <= maxCol; col++)
+                {
+                    int cell = Math.floorMod(row, GRID_CELLS) * GRID_CELLS + Math.floorMod(col, GRID_CELLS);
+                    if (nearby == null || nearby.length < n + cellCounts[cell])
+                    {
+                        nearby = Arrays.copyOf((nearby == null) ? new int[0] : nearby, 2 * (n + cellCounts[cell]));
+                    }
+                    for (int k = 0; k < cellCounts[cell]; k++)
+                    {
+                        if (cells[cell][k] > i)
+                        {
+                            nearby[n++] = cells[cell][k];
+                        }
+                    }
+                }
+            }
+            Arrays.sort(nearby, 0, n);
+
+            // Drop the participants that were found in more than one cell
+            int unique = 0;
+            for (int k = 0; k < n; k++)
+            {
+                if (unique == 0 || nearby[unique - 1] != nearby[k])
+                {
+                    nearby[unique++] = nearby[k];
+                }
+            }
+            return unique;
+        }
+    }
+
+    /**
+     * Puts each unexpired collidable participant into every cell of the collision grid that its bounding box touches.
+     */
+    private void fillGrid ()
+    {
+        Arrays.fill(cellCounts, 0);
+        for (int a = 0; a < collidableCount; a++)
+        {
+            int i = collidable[a];
+            Participant p = participants[i];
+            if (!p.isExpired() && p.getBounds() != null)
+            {
+                Rectangle2D b = p.getCollisionBounds();
+                int minCol = cellOf(b.getMinX());
+                int maxCol = Math.min(cellOf(b.getMaxX()), minCol + GRID_CELLS - 1);
+                int minRow = cellOf(b.getMinY());
+                int maxRow = Math.min(cellOf(b.getMaxY()), minRow + GRID_CELLS - 1);
+                for (int row = minRow; row <= maxRow; row++)
+                {
+                    for (int col = minCol; col <= maxCol; col++)
+                    {
+                        addToCell(Math.floorMod(row, GRID_CELLS) * GRID_CELLS + Math.floorMod(col, GRID_CELLS), i);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the (unwrapped) grid column or row that contains the coordinate.
+     */
+    private static int cellOf (double coordinate)
+    {
+        return (int) Math.floor(coordinate / CELL_SIZE);
+    }
+
+    /**
+     * Records that the participant with the given index touches the given cell.
+     */
+    private void addToCell (int cell, int index)
+    {
+        if (cellCounts[cell] == cells[cell].length)
+        {
+            cells[cell] = Arrays.copyOf(cells[cell], 2 * cellCounts[cell]);
+        }
+        cells[cell][cellCounts[cell]++] = index;
+    }
+
+    /**
+     * Fills candidates, in increasing order, with the indexes greater than i of the participants that share a grid
+     * cell with participant i. Returns the number of candidates.
+     */
+    private int findCandidates (int i)
+    {
+        Rectangle2D b = participants[i].getCollisionBounds();
+        int minCol = cellOf(b.getMinX());
+        int maxCol = Math.min(cellOf(b.getMaxX()), minCol + GRID_CELLS - 1);
+        int minRow = cellOf(b.getMinY());
+        int maxRow = Math.min(cellOf(b.getMaxY()), minRow + GRID_CELLS - 1);
+
+        int count = 0;
+        for (int row = minRow; row <= maxRow; row++)
+        {
+            for (int col = minCol; col <= maxCol; col++)
+            {
+                int cell = Math.floorMod(row, GRID_CELLS) * GRID_CELLS + Math.floorMod(col, GRID_CELLS);
+                for (int k = 0; k < cellCounts[cell]; k++)
+                {
+                    int j = cells[cell][k];
+                    if (j > i && stamps[j] != i + 1)
+                    {
+                        stamps[j] = i + 1;
+                        candidates[count++] = j;
+                    }
+                }
+            }
+        }
+        Arrays.sort(candidates, 0, count);
+        return count;
+    }
     
     
     /**
@@ -142,29 +1139,29 @@ public class ParticipantState implements Iterable<Participant>
     }
     
     /**
-     * Represents an Iterator over the unexpired participants.
+     * Represents an Iterator over the unexpired participants, including the ones that are waiting to be added.
      */
     private class ParticipantIterator implements Iterator<Participant>
     {
-        /** An iterator over the participants */
-        private Iterator<Participant> participantsIter;
-        
-        /** An iterator over the pendingAdds */
-        private Iterator<Participant> pendingsIter;
-        
+        /** Index in participants of the next participant to consider */
+        private int participantsIndex;
+
+        /** Index in pendingAdds of the next participant to consider */
+        private int pendingsIndex;
+
         /** If non-null, the next object to be returned by the next() method */
         private Participant saved;
-        
+
         /**
-         * Creates a ParticipantIterator 
+         * Creates a ParticipantIterator
          */
         public ParticipantIterator ()
         {
-            participantsIter = participants.iterator();
-            pendingsIter = pendingAdds.iterator();
+            participantsIndex = 0;
+            pendingsIndex = 0;
             saved = null;
         }
-        
+
         @Override
         public boolean hasNext ()
         {
@@ -172,59 +1169,91 @@ public class ParticipantState implements Iterable<Participant>
             {
                 return true;
             }
-            
-            while (participantsIter.hasNext())
+
+            while (participantsIndex < count)
             {
-                Participant p = participantsIter.next();
+                Participant p = participants[participantsIndex++];
                 if (!p.isExpired())
                 {
                     saved = p;
                     return true;
                 }
             }
-            
-            while (pendingsIter.hasNext())
+
+            while (pendingsIndex < pendingCount)
             {
-                Participant p = pendingsIter.next();
+                Participant p = pendingAdds[pendingsIndex++];
                 if (!p.isExpired())
                 {
                     saved = p;
                     return true;
                 }
             }
-            
+
             return false;
         }
-        
+
         @Override
         public Participant next ()
         {
-            if (saved != null)
+            if (hasNext())
             {
                 Participant p = saved;
                 saved = null;
                 return p;
             }
-            
-            while (participantsIter.hasNext())
+            throw new NoSuchElementException();
+        }
+    }
+
+    /**
+     * Represents an Iterator over the unexpired participants of one type, including the ones that are waiting to be
+     * added.
+     */
+    private class TypeIterator<T> implements Iterator<T>
+    {
+        /** The type of the participants to be returned */
+        private final Class<T> type;
+
+        /** Iterator over the participants of all types */
+        private final Iterator<Participant> all;
+
+        /** If non-null, the next object to be returned by the next() method */
+        private T saved;
+
+        /**
+         * Creates a TypeIterator
+         */
+        public TypeIterator (Class<T> type)
+        {
+            this.type = type;
+            all = new ParticipantIterator();
+        }
+
+        @Override
+        public boolean hasNext ()
+        {
+            while (saved == null && all.hasNext())
             {
-                Participant p = participantsIter.next();
-                if (!p.isExpired())
+                Participant p = all.next();
+                if (type.isInstance(p))
                 {
-                    return p;
+                    saved = type.cast(p);
                 }
             }
-            
-            while (pendingsIter.hasNext())
+            return saved != null;
+        }
+
+        @Override
+        public T next ()
+        {
+            if (hasNext())
             {
-                Participant p = pendingsIter.next();
-                if (!p.isExpired())
-                {
-                    return p;
-                }
+                T p = saved;
+                saved = null;
+                return p;
             }
-            
             throw new NoSuchElementException();
-        }       
+        }
     }
 }
@@ -0,0 +1,45 @@
+package asteroids.game;
+
+import java.awt.event.KeyListener;
+
+/**
+ * What a Controller shows the game on. Display shows it in a window. NullRenderer shows nothing, which lets the game
+ * run without a window system.
+ */
+public interface Renderer
+{
+    /**
+     * Called when it is time to update the screen display. This is what drives the animation.
+     */
+    void refresh ();
+
+    /**
+     * Sets the large legend
+     */
+    void setLegend (String s);
+
+    /**
+     * Sets the level that is shown
+     */
+    void setLevel (int l);
+
+    /**
+     * Sets the score that is shown
+     */
+    void setScore (int s);
+
+    /**
+     * Sets the number of lives that is shown
+     */
+    void setLives (int l);
+
+    /**
+     * Starts sending key events to the listener (but not twice) and gives the game the keyboard focus.
+     */
+    void startListening (KeyListener listener);
+
+    /**
+     * Stops sending key events to the listener.
+     */
+    void stopListening (KeyListener listener);
+}
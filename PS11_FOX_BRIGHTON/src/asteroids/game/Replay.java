@@ -0,0 +1,324 @@
+package asteroids.game;
+
+import java.io.*;
+import java.util.Arrays;
+
+/**
+ * A recording of a game. Since a game is completely determined by its version, its seed, and the input on each frame,
+ * that is all that needs to be kept. The input is kept as runs of frames with the same INPUT_ bits, which is compact
+ * because the keys change far less often than the frames. One byte of the game's checksum is kept for every frame, and
+ * the whole checksum for the last frame, so that playing the recording back can tell on the very frame where it
+ * starts to differ from the original game.
+ *
+ * In the binary format, a run is its input byte followed by its length as a variable-length integer (seven bits per
+ * byte, low bits first, high bit set on all but the last byte). A game of a few minutes takes a few kilobytes.
+ */
+public class Replay
+{
+    /** First four bytes of a replay file: "ASTR" */
+    private static final int MAGIC = 0x41535452;
+
+    /** Version of the binary format */
+    private static final int FORMAT = 1;
+
+    /** Version of the game (0 for classic, 1 for enhanced) */
+    private final int version;
+
+    /** Seed of the game's random numbers */
+    private final long seed;
+
+    /** Number of frames recorded */
+    private int frames;
+
+    /** Number of runs of input */
+    private int runs;
+
+    /** The input bits of each run */
+    private byte[] runInputs;
+
+    /** The number of frames in each run */
+    private int[] runLengths;
+
+    /** The low byte of the checksum after each frame */
+    private byte[] checksums;
+
+    /** The checksum after the last frame */
+    private long finalChecksum;
+
+    /**
+     * Creates an empty recording of a game with the given version and seed.
+     */
+    Replay (int version, long seed)
+    {
+        this.version = version;
+        this.seed = seed;
+        frames = 0;
+        runs = 0;
+        runInputs = new byte[16];
+        runLengths = new int[16];
+        checksums = new byte[1024];
+        finalChecksum = 0;
+    }
+
+    /**
+     * Returns the version of the recorded game.
+     */
+    public int getVersion ()
+    {
+        return version;
+    }
+
+    /**
+     * Returns the seed of the recorded game.
+     */
+    public long getSeed ()
+    {
+        return seed;
+    }
+
+    /**
+     * Returns the number of frames recorded.
+     */
+    public int getFrames ()
+    {
+        return frames;
+    }
+
+    /**
+     * Returns the checksum of the game after the last recorded frame.
+     */
+    public long getFinalChecksum ()
+    {
+        return finalChecksum;
+    }
+
+    /**
+     * Adds a frame with the given input, after which the game had the given checksum.
+     */
+    void record (int input, long checksum)
+    {
+        if (runs > 0 && runInputs[runs - 1] == (byte) input)
+        {
+            runLengths[runs - 1]++;
+        }
+        else
+        {
+            if (runs == runInputs.length)
+            {
+                runInputs = Arrays.copyOf(runInputs, 2 * runs);
+                runLengths = Arrays.copyOf(runLengths, 2 * runs);
+            }
+            runInputs[runs] = (byte) input;
+            runLengths[runs] = 1;
+            runs++;
+        }
+        if (frames == checksums.length)
+        {
+            checksums = Arrays.copyOf(checksums, 2 * frames);
+        }
+        checksums[frames++] = (byte) checksum;
+        finalChecksum = checksum;
+    }
+
+    /**
+     * Plays the recording back in a headless game, as fast as possible. Returns the number of the first frame after
+     * which the game's checksum differs from the recording, or -1 if the whole recording plays back exactly.
+     */
+    public int verify ()
+    {
+        Controller controller = Controller.createReplay(this, true);
+        while (!controller.isReplayFinished() && controller.getDivergence() < 0)
+        {
+            controller.tick();
+        }
+        return controller.getDivergence();
+    }
+
+    /**
+     * Writes the recording in the binary format.
+     */
+    public void write (OutputStream stream) throws IOException
+    {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeInt(MAGIC);
+        out.writeByte(FORMAT);
+        out.writeByte(version);
+        out.writeLong(seed);
+        out.writeInt(frames);
+        out.writeInt(runs);
+        for (int i = 0; i < runs; i++)
+        {
+            out.writeByte(runInputs[i]);
+            writeVarInt(out, runLengths[i]);
+        }
+        out.write(checksums, 0, frames);
+        out.writeLong(finalChecksum);
+        out.flush();
+    }
+
+    /**
+     * Reads a recording in the binary format.
+     */
+    public static Replay read (InputStream stream) throws IOException
+    {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != MAGIC || in.readByte() != FORMAT)
+        {
+            throw new IOException("Not an Asteroids replay");
+        }
+        Replay replay = new Replay(in.readByte(), in.readLong());
+        replay.frames = in.readInt();
+        replay.runs = in.readInt();
+        if (replay.frames < 0 || replay.runs < 0 || replay.runs > replay.frames)
+        {
+            throw new IOException("Corrupt Asteroids replay");
+        }
+        replay.runInputs = new byte[replay.runs];
+        replay.runLengths = new int[replay.runs];
+        for (int i = 0; i < replay.runs; i++)
+        {
+            replay.runInputs[i] = in.readByte();
+            replay.runLengths[i] = readVarInt(in);
+        }
+        replay.checksums = new byte[replay.frames];
+        in.readFully(replay.checksums);
+        replay.finalChecksum = in.readLong();
+        return replay;
+    }
+
+    /**
+     * Writes the recording to a file.
+     */
+    public void save (File file) throws IOException
+    {
+        try (OutputStream out = new FileOutputStream(file))
+        {
+            write(out);
+        }
+    }
+
+    /**
+     * Reads a recording from a file.
+     */
+    public static Replay load (File file) throws IOException
+    {
+        try (InputStream in = new FileInputStream(file))
+        {
+            return read(in);
+        }
+    }
+
+    /**
+     * Writes a non-negative int seven bits at a time.
+     */
+    private static void writeVarInt (DataOutputStream out, int n) throws IOException
+    {
+        while ((n & ~0x7F) != 0)
+        {
+            out.writeByte((n & 0x7F) | 0x80);
+            n >>>= 7;
+        }
+        out.writeByte(n);
+    }
+
+    /**
+     * Reads an int written by writeVarInt.
+     */
+    private static int readVarInt (DataInputStream in) throws IOException
+    {
+        int n = 0;
+        for (int shift = 0; shift < 32; shift += 7)
+        {
+            int b = in.readUnsignedByte();
+            n |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+            {
+                return n;
+            }
+        }
+        throw new IOException("Corrupt Asteroids replay");
+    }
+
+    /**
+     * Steps through the recording one frame at a time, handing out the input for each frame and checking the game's
+     * checksum after it. A Controller that plays back a replay has one of these.
+     */
+    class Player
+    {
+        /** Number of frames handed out so far */
+        private int frame;
+
+        /** Run that the next frame belongs to */
+        private int run;
+
+        /** Frames of that run that haven't been handed out yet */
+        private int left;
+
+        /** The first frame whose checksum didn't match, or -1 if all have matched */
+        private int divergence;
+
+        /**
+         * Starts at the first frame.
+         */
+        Player ()
+        {
+            frame = 0;
+            run = 0;
+            left = (runs > 0) ? runLengths[0] : 0;
+            divergence = -1;
+        }
+
+        /**
+         * Reports whether any frames are left.
+         */
+        boolean hasNext ()
+        {
+            return frame < frames;
+        }
+
+        /**
+         * Returns the input for the next frame, or 0 if there are no frames left.
+         */
+        int nextInput ()
+        {
+            while (left == 0 && run + 1 < runs)
+            {
+                run++;
+                left = runLengths[run];
+            }
+            if (left == 0)
+            {
+                return 0;
+            }
+            left--;
+            return runInputs[run] & 0xFF;
+        }
+
+        /**
+         * Compares the game's checksum after the frame whose input was just handed out with the recording. Returns
+         * false if they differ, which is remembered.
+         */
+        boolean check (long checksum)
+        {
+            if (frame >= frames)
+            {
+                return true;
+            }
+            boolean matches = (byte) checksum == checksums[frame] && (frame < frames - 1 || checksum == finalChecksum);
+            if (!matches && divergence < 0)
+            {
+                divergence = frame;
+            }
+            frame++;
+            return matches;
+        }
+
+        /**
+         * Returns the first frame whose checksum didn't match, or -1 if all have matched.
+         */
+        int getDivergence ()
+        {
+            return divergence;
+        }
+    }
+}
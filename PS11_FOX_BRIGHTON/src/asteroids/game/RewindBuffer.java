@@ -0,0 +1,89 @@
+package asteroids.game;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Keeps the saved states of the most recent frames of a game in a ring of reusable buffers, so that the game can be
+ * rewound. Once the ring is full, each new state takes the place of the oldest one. A buffer that turns out to be too
+ * small for a state is replaced by one twice as big, so after the first few saves nothing more is allocated.
+ */
+public class RewindBuffer
+{
+    /** Size in bytes that each buffer starts out with */
+    private static final int INITIAL_CAPACITY = 16 * 1024;
+
+    /** The saved states. Each is flipped, ready to be read. */
+    private final ByteBuffer[] states;
+
+    /** Index in states of the most recent state */
+    private int newest;
+
+    /** Number of states being kept */
+    private int size;
+
+    /**
+     * Creates a buffer that keeps the given number of most recent states.
+     */
+    public RewindBuffer (int capacity)
+    {
+        states = new ByteBuffer[capacity];
+        newest = capacity - 1;
+        size = 0;
+    }
+
+    /**
+     * Returns the number of states being kept.
+     */
+    public int size ()
+    {
+        return size;
+    }
+
+    /**
+     * Saves the current state of the game as the most recent one.
+     */
+    public void save (Controller controller)
+    {
+        newest = (newest + 1) % states.length;
+        if (states[newest] == null)
+        {
+            states[newest] = ByteBuffer.allocate(INITIAL_CAPACITY);
+        }
+        while (true)
+        {
+            ByteBuffer state = states[newest];
+            state.clear();
+            try
+            {
+                controller.saveState(state);
+                state.flip();
+                break;
+            }
+            catch (BufferOverflowException e)
+            {
+                states[newest] = ByteBuffer.allocate(2 * state.capacity());
+            }
+        }
+        size = Math.min(size + 1, states.length);
+    }
+
+    /**
+     * Puts the game back into the state that was saved the given number of saves before the most recent one (so 0
+     * means the most recent), and forgets the states that were saved after it. Returns false, and does nothing, if
+     * that many states aren't being kept.
+     */
+    public boolean rewind (Controller controller, int saves)
+    {
+        if (saves < 0 || saves >= size)
+        {
+            return false;
+        }
+        newest = (newest - saves + states.length) % states.length;
+        size -= saves;
+        ByteBuffer state = states[newest];
+        state.rewind();
+        controller.restoreState(state);
+        return true;
+    }
+}
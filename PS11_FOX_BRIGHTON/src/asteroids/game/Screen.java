@@ -12,13 +12,13 @@ import asteroids.participants.Ship;
 public class Screen extends JPanel
 {
     /** Legend that is displayed across the screen */
-    private String legend;
+    private volatile String legend;
 
-    private String level;
+    private volatile String level;
 
-    private String score;
+    private volatile String score;
 
-    private int lives;
+    private volatile int lives;
 
     /** Game controller */
     private Controller controller;
@@ -78,6 +78,9 @@ public class Screen extends JPanel
     @Override
     public void paintComponent (Graphics graphics)
     {
+        FrameMetrics timing = controller.getMetrics();
+        long start = (timing != null) ? System.nanoTime() : 0;
+
         // Use better resolution
         Graphics2D g = (Graphics2D) graphics;
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
@@ -86,11 +89,8 @@ public class Screen extends JPanel
         // Do the default painting
         super.paintComponent(g);
 
-        // Draw each participant in its proper place
-        for (Participant p : controller)
-        {
-            p.draw(g);
-        }
+        // Draw each participant in its proper place, as of the end of the most recent frame
+        controller.getSnapshot().draw(g);
 
         g.setFont(bigText);
         // Draw the legend across the middle of the panel
@@ -125,5 +125,10 @@ public class Screen extends JPanel
             g.drawString("HI-SCORE", 10, SIZE - 50);
         }
 
+        if (timing != null)
+        {
+            timing.record(FrameMetrics.Phase.PAINT, System.nanoTime() - start);
+        }
+
     }
 }
@@ -0,0 +1,129 @@
+package asteroids.game;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+/**
+ * Works like a javax.swing.Timer, except that time is counted in frames by a TimingWheel instead of by the clock. The
+ * listener is told when the time is up, with the TickTimer as the source of the event. Like a Swing timer, it repeats
+ * unless told not to.
+ */
+public class TickTimer extends TimingWheel.Entry
+{
+    /** The wheel that counts the frames */
+    private final TimingWheel wheel;
+
+    /** Listener to be told when the time is up */
+    private final ActionListener listener;
+
+    /** Number of frames between events */
+    private int ticks;
+
+    /** True if the timer starts over each time it goes off */
+    private boolean repeats;
+
+    /** The event the listener is told about, which is the same every time, so it is only made once */
+    private final ActionEvent event;
+
+    /**
+     * Creates a timer that, once started, tells the listener every time msecs milliseconds of frames go by on the
+     * wheel.
+     */
+    public TickTimer (TimingWheel wheel, int msecs, ActionListener listener)
+    {
+        this(wheel, listener, TimingWheel.toTicks(msecs));
+    }
+
+    /**
+     * Creates a timer that goes off every given number of frames.
+     */
+    private TickTimer (TimingWheel wheel, ActionListener listener, int ticks)
+    {
+        this.wheel = wheel;
+        this.listener = listener;
+        this.ticks = ticks;
+        this.repeats = true;
+        this.event = new ActionEvent(this, ActionEvent.ACTION_PERFORMED, null);
+    }
+
+    /**
+     * Creates a timer that, once started, goes off every given number of frames. This is for restoring a saved game,
+     * where the interval has already been converted to frames.
+     */
+    static TickTimer ofTicks (TimingWheel wheel, int ticks, ActionListener listener)
+    {
+        return new TickTimer(wheel, listener, ticks);
+    }
+
+    /**
+     * Returns the number of frames between events.
+     */
+    int getTicks ()
+    {
+        return ticks;
+    }
+
+    /**
+     * Sets the time between events to msecs milliseconds of frames, from the next time the timer is started.
+     */
+    public void setDelay (int msecs)
+    {
+        ticks = TimingWheel.toTicks(msecs);
+    }
+
+    /**
+     * If b is false, the timer goes off only once each time it is started.
+     */
+    public void setRepeats (boolean b)
+    {
+        repeats = b;
+    }
+
+    /**
+     * Starts the timer. Does nothing if it is already running.
+     */
+    public void start ()
+    {
+        if (!isScheduled())
+        {
+            wheel.schedule(this, ticks);
+        }
+    }
+
+    /**
+     * Starts the timer over from the beginning.
+     */
+    public void restart ()
+    {
+        wheel.schedule(this, ticks);
+    }
+
+    /**
+     * Stops the timer.
+     */
+    public void stop ()
+    {
+        wheel.cancel(this);
+    }
+
+    /**
+     * Reports whether the timer is running.
+     */
+    public boolean isRunning ()
+    {
+        return isScheduled();
+    }
+
+    /**
+     * Starts the next interval if the timer repeats, then tells the listener.
+     */
+    @Override
+    protected void fire ()
+    {
+        if (repeats)
+        {
+            wheel.schedule(this, ticks);
+        }
+        listener.actionPerformed(event);
+    }
+}
@@ -0,0 +1,213 @@
+package asteroids.game;
+
+import static asteroids.game.Constants.*;
+import java.util.function.Consumer;
+
+/**
+ * Counts simulation ticks and fires entries when the number of ticks they were scheduled for has passed. This is a
+ * hashed timing wheel: each entry is kept in the slot for the tick it is due on, modulo the number of slots, so
+ * scheduling and cancelling take constant time and each tick only looks at one slot. The entries link themselves into
+ * the slots, so no memory is allocated while timing.
+ */
+public class TimingWheel
+{
+    /** Number of slots in the wheel. This is a power of two, enough for about eight seconds of frames. */
+    private static final int SLOTS = 256;
+
+    /** Dummy entries that begin and end the circular list of entries in each slot */
+    private final Entry[] slots;
+
+    /** Dummy entry that begins and ends the list of entries being fired during the current tick */
+    private final Entry due;
+
+    /** Number of ticks that have passed */
+    private long tick;
+
+    /**
+     * Represents something that can be scheduled on a TimingWheel.
+     */
+    public static abstract class Entry
+    {
+        /** Neighbors in the list that this entry is on, or null if it is not on one */
+        private Entry prev, next;
+
+        /** Tick on which the entry is due */
+        private long deadline;
+
+        /**
+         * Returns the tick on which the entry is (or was last) due.
+         */
+        long getDeadline ()
+        {
+            return deadline;
+        }
+
+        /**
+         * Reports whether the entry is waiting to be fired.
+         */
+        public boolean isScheduled ()
+        {
+            return next != null;
+        }
+
+        /**
+         * Called when the entry's tick arrives.
+         */
+        protected abstract void fire ();
+    }
+
+    /**
+     * The kind of entry that begins and ends a list.
+     */
+    private static class Sentinel extends Entry
+    {
+        @Override
+        protected void fire ()
+        {
+        }
+    }
+
+    /**
+     * Creates a wheel at tick 0 with nothing scheduled.
+     */
+    public TimingWheel ()
+    {
+        slots = new Entry[SLOTS];
+        for (int i = 0; i < SLOTS; i++)
+        {
+            slots[i] = newList();
+        }
+        due = newList();
+        tick = 0;
+    }
+
+    /**
+     * Returns the number of frames, rounded up, that make up the given number of milliseconds. The result is at least
+     * 1, so that nothing fires during the tick it was scheduled on.
+     */
+    public static int toTicks (int msecs)
+    {
+        return Math.max(1, (msecs + FRAME_INTERVAL - 1) / FRAME_INTERVAL);
+    }
+
+    /**
+     * Returns the number of ticks that have passed.
+     */
+    public long getTick ()
+    {
+        return tick;
+    }
+
+    /**
+     * Schedules the entry to fire once the given number of ticks (at least 1) have passed. If the entry was already
+     * scheduled, it is rescheduled.
+     */
+    public void schedule (Entry e, int ticks)
+    {
+        cancel(e);
+        e.deadline = tick + Math.max(1, ticks);
+        link(e, slots[(int) (e.deadline & (SLOTS - 1))]);
+    }
+
+    /**
+     * Keeps the entry from firing. Does nothing if it isn't scheduled.
+     */
+    public void cancel (Entry e)
+    {
+        if (e.next != null)
+        {
+            e.prev.next = e.next;
+            e.next.prev = e.prev;
+            e.prev = null;
+            e.next = null;
+        }
+    }
+
+    /**
+     * Unschedules every entry and sets the number of ticks that have passed. This is for restoring a saved game.
+     */
+    public void reset (long tick)
+    {
+        for (Entry slot : slots)
+        {
+            while (slot.next != slot)
+            {
+                cancel(slot.next);
+            }
+        }
+        while (due.next != due)
+        {
+            cancel(due.next);
+        }
+        this.tick = tick;
+    }
+
+    /**
+     * Passes each scheduled entry to the consumer. The entries of each slot are passed together, in the order they
+     * were scheduled, so scheduling them again in the same order makes them fire in the same order as they would have.
+     */
+    public void forEachScheduled (Consumer<Entry> consumer)
+    {
+        for (int i = 1; i <= SLOTS; i++)
+        {
+            Entry slot = slots[(int) ((tick + i) & (SLOTS - 1))];
+            for (Entry e = slot.next; e != slot; e = e.next)
+            {
+                consumer.accept(e);
+            }
+        }
+    }
+
+    /**
+     * Moves on to the next tick and fires the entries that are due on it, in the order they were scheduled. Entries
+     * can be scheduled and cancelled while this is happening.
+     */
+    public void advance ()
+    {
+        tick++;
+
+        // Take the due entries out of their slot first. The slot also holds entries for later turns of the wheel.
+        Entry slot = slots[(int) (tick & (SLOTS - 1))];
+        Entry e = slot.next;
+        while (e != slot)
+        {
+            Entry next = e.next;
+            if (e.deadline == tick)
+            {
+                cancel(e);
+                link(e, due);
+            }
+            e = next;
+        }
+
+        // Fire them. Each one is taken off the list before it fires, in case it reschedules itself.
+        while (due.next != due)
+        {
+            e = due.next;
+            cancel(e);
+            e.fire();
+        }
+    }
+
+    /**
+     * Returns the sentinel of a new, empty list.
+     */
+    private static Entry newList ()
+    {
+        Entry sentinel = new Sentinel();
+        sentinel.prev = sentinel;
+        sentinel.next = sentinel;
+        return sentinel;
+    }
+
+    /**
+     * Adds the entry to the end of the list that begins with the sentinel.
+     */
+    private static void link (Entry e, Entry sentinel)
+    {
+        e.prev = sentinel.prev;
+        e.next = sentinel;
+        sentinel.prev.next = e;
+        sentinel.prev = e;
+    }
+}
@@ -2,8 +2,8 @@ package asteroids.participants;
 
 import static asteroids.game.Constants.*;
 import java.awt.Shape;
-import java.awt.geom.*;
 import asteroids.destroyers.*;
+import asteroids.game.CollisionPolygon;
 import asteroids.game.Controller;
 import asteroids.game.Participant;
 import asteroids.game.ParticipantCountdownTimer;
@@ -13,12 +13,12 @@ import asteroids.game.ParticipantCountdownTimer;
  */
 public class AlienBullet extends Participant implements ShipDestroyer, AsteroidDestroyer
 {
-    /** The outline of the bullet */
-    private Shape outline;
-    
     /** Game controller */
     @SuppressWarnings("unused")
     private Controller controller;
+
+    /** Calls countdownComplete when the bullet has been flying for BULLET_DURATION milliseconds */
+    private ParticipantCountdownTimer timer;
     
     /**
      * Constructs bullet at specified coordinates, headed in specified direction at BULLET_SPEED
@@ -30,27 +30,55 @@ public class AlienBullet extends Participant implements ShipDestroyer, AsteroidD
         setPosition(x, y);
         setVelocity(BULLET_SPEED, direction);
         
-        Path2D.Double poly = new Path2D.Double();
-        poly.moveTo(0.5, 0);
-        poly.lineTo(-0.5, -0.5);
-        poly.lineTo(0, 0);
-        poly.lineTo(-0.5, 0.5);
-        poly.closePath();
-        outline = poly;
-        
-        new ParticipantCountdownTimer(this, this, BULLET_DURATION);
+        timer = new ParticipantCountdownTimer(this, this, BULLET_DURATION);
+    }
+
+    /**
+     * Returns a bullet like the one the constructor makes, reusing an expired one from the controller's game if there
+     * is one.
+     */
+    public static AlienBullet create (int x, int y, double direction, Controller controller)
+    {
+        AlienBullet bullet = controller.reuse(AlienBullet.class);
+        if (bullet == null)
+        {
+            return new AlienBullet(x, y, direction, controller);
+        }
+        bullet.controller = controller;
+        bullet.setPosition(x, y);
+        bullet.setVelocity(BULLET_SPEED, direction);
+        bullet.timer.restart();
+        return bullet;
     }
     
     @Override
     protected Shape getOutline ()
     {
-        return outline;
+        return Bullet.OUTLINE;
     }
-    
+
+    @Override
+    protected CollisionPolygon getPolygon (Shape outline)
+    {
+        return (outline == Bullet.OUTLINE) ? Bullet.POLYGON : super.getPolygon(outline);
+    }
+
+    /**
+     * Alien bullets are reused, like the ship's bullets.
+     */
     @Override
-    public void move ()
+    protected boolean isReusable ()
     {
-        super.move();
+        return true;
+    }
+
+    /**
+     * Alien bullets are swept, like the ship's bullets.
+     */
+    @Override
+    protected boolean isSwept ()
+    {
+        return true;
     }
     
     /**
@@ -62,6 +90,15 @@ public class AlienBullet extends Participant implements ShipDestroyer, AsteroidD
         Participant.expire(this);
     }
     
+    /**
+     * Alien bullets only expire when they hit AlienShipDestroyers
+     */
+    @Override
+    protected Class<?> getCollidesWith ()
+    {
+        return AlienShipDestroyer.class;
+    }
+
     /**
      * When an AlienBullet collides with an AlienShipDestroyer, it expires
      */
@@ -3,8 +3,9 @@ package asteroids.participants;
 import static asteroids.game.Constants.*;
 import java.awt.Shape;
 import java.awt.geom.*;
+import java.nio.ByteBuffer;
 import asteroids.destroyers.*;
-import asteroids.game.Constants;
+import asteroids.game.CollisionPolygon;
 import asteroids.game.Controller;
 import asteroids.game.Participant;
 import asteroids.game.ParticipantCountdownTimer;
@@ -14,6 +15,21 @@ import asteroids.game.ParticipantCountdownTimer;
  */
 public class AlienShip extends Participant implements AsteroidDestroyer, ShipDestroyer
 {
+    /** The outline of each size of alien ship, shared by all alien ships */
+    private static final Shape[] OUTLINES = new Shape[ALIENSHIP_SCALE.length];
+
+    /** OUTLINES flattened for detecting collisions */
+    private static final CollisionPolygon[] POLYGONS = new CollisionPolygon[OUTLINES.length];
+
+    static
+    {
+        for (int size = 0; size < OUTLINES.length; size++)
+        {
+            OUTLINES[size] = createOutline(size);
+            POLYGONS[size] = new CollisionPolygon(OUTLINES[size]);
+        }
+    }
+
     /** The outline of the alien ship */
     private Shape outline;
 
@@ -25,6 +41,12 @@ public class AlienShip extends Participant implements AsteroidDestroyer, ShipDes
 
     private boolean changeDirection;
 
+    /** Timer that sets changeDirection, kept so that it can be restarted rather than replaced */
+    private ParticipantCountdownTimer directionTimer;
+
+    /** Timer that fires a bullet, kept so that it can be restarted rather than replaced */
+    private ParticipantCountdownTimer fireTimer;
+
     /**
      * Spawns an alien ship outside of the screen of the given size
      */
@@ -36,6 +58,21 @@ public class AlienShip extends Participant implements AsteroidDestroyer, ShipDes
 
         changeDirection = false;
 
+        this.outline = OUTLINES[size];
+
+        // timer to set direction change constant to 1
+        directionTimer = new ParticipantCountdownTimer(this, "directionChange", 1500);
+        fireTimer = new ParticipantCountdownTimer(this, "fire", 1250);
+
+        this.setPosition(0, 0); // spawns alien ship off screen
+        this.setVelocity(2, Controller.randomOf(controller).nextInt(2) * Math.PI); // randomly sets velocity
+    }
+
+    /**
+     * Creates the outline of an alien ship of the given size
+     */
+    private static Shape createOutline (int size)
+    {
         final Path2D.Double poly = new Path2D.Double();
         poly.moveTo(20.0, 0.0);
         poly.lineTo(10.0, 10.0);
@@ -51,16 +88,10 @@ public class AlienShip extends Participant implements AsteroidDestroyer, ShipDes
         poly.lineTo(5.0, -20.0);
         poly.lineTo(10.0, -10.0);
         poly.closePath();
-        this.outline = poly;
 
-        new ParticipantCountdownTimer(this, "directionChange", 1500); // timer to set direction change constant to 1
-        new ParticipantCountdownTimer(this, "fire", 1250);
-
-        double scale = ALIENSHIP_SCALE[this.size]; // determines scale based on ship size
+        double scale = ALIENSHIP_SCALE[size]; // determines scale based on ship size
         poly.transform(AffineTransform.getScaleInstance(scale, scale));
-
-        this.setPosition(0, 0); // spawns alien ship off screen
-        this.setVelocity(2, Constants.RANDOM.nextInt(2) * Math.PI); // randomly sets velocity
+        return poly;
     }
 
     /**
@@ -92,25 +123,24 @@ public class AlienShip extends Participant implements AsteroidDestroyer, ShipDes
     }
 
     /**
-     * uses a boolean to check if it is time for the ship to move
-     * unsure, need brighton's explanation
+     * uses a boolean to check if it is time for the ship to change direction, which is done after every participant
+     * has moved since it uses the game's random numbers and starts a timer
      */
     @Override
-    public void move ()
+    protected void afterMove ()
     {
-        super.move();
         if (changeDirection) // checks that it is time to move
         {
             changeDirection = false; // resets time to move variable
             if (Math.cos(this.getDirection()) > 0.0) // checks where ship is heading
             {
-                this.setDirection(Constants.RANDOM.nextInt(3) - 1);
+                this.setDirection(controller.getRandom().nextInt(3) - 1);
             }
             else
             {
-                this.setDirection(Math.PI + Constants.RANDOM.nextInt(3) - 1.0);
+                this.setDirection(Math.PI + controller.getRandom().nextInt(3) - 1.0);
             }
-            new ParticipantCountdownTimer(this, "directionChange", 1500); // resets direction change
+            directionTimer.restart(1500); // resets direction change
         }
     }
 
@@ -120,6 +150,26 @@ public class AlienShip extends Participant implements AsteroidDestroyer, ShipDes
         return outline;
     }
 
+    @Override
+    protected CollisionPolygon getPolygon (Shape outline)
+    {
+        return (outline == OUTLINES[size]) ? POLYGONS[size] : super.getPolygon(outline);
+    }
+
+    @Override
+    protected void writeState (ByteBuffer out)
+    {
+        super.writeState(out);
+        out.put((byte) (changeDirection ? 1 : 0));
+    }
+
+    @Override
+    protected void readState (ByteBuffer in)
+    {
+        super.readState(in);
+        changeDirection = in.get() != 0;
+    }
+
     /**
      * handles countdown's and constant setting/bullet firing speed
      */
@@ -136,6 +186,15 @@ public class AlienShip extends Participant implements AsteroidDestroyer, ShipDes
         }
     }
 
+    /**
+     * Alien ships are only destroyed by AlienShipDestroyers
+     */
+    @Override
+    protected Class<?> getCollidesWith ()
+    {
+        return AlienShipDestroyer.class;
+    }
+
     /**
      * handles all actions on ship collision and spawns debris at alien ships death location
      */
@@ -148,12 +207,12 @@ public class AlienShip extends Participant implements AsteroidDestroyer, ShipDes
             controller.alienShipDestroyed(this);
 
             // Spawn debris from destroyed ship
-            controller.addParticipant(new Debris(this.getX(), this.getY(), 17));
-            controller.addParticipant(new Debris(this.getX(), this.getY(), 17));
-            controller.addParticipant(new Debris(this.getX(), this.getY(), 12));
-            controller.addParticipant(new Debris(this.getX(), this.getY(), 12));
-            controller.addParticipant(new Debris(this.getX(), this.getY(), 6));
-            controller.addParticipant(new Debris(this.getX(), this.getY(), 6));
+            controller.addParticipant(Debris.create(this.getX(), this.getY(), 17, controller));
+            controller.addParticipant(Debris.create(this.getX(), this.getY(), 17, controller));
+            controller.addParticipant(Debris.create(this.getX(), this.getY(), 12, controller));
+            controller.addParticipant(Debris.create(this.getX(), this.getY(), 12, controller));
+            controller.addParticipant(Debris.create(this.getX(), this.getY(), 6, controller));
+            controller.addParticipant(Debris.create(this.getX(), this.getY(), 6, controller));
         }
     }
 
@@ -171,25 +230,24 @@ public class AlienShip extends Participant implements AsteroidDestroyer, ShipDes
                 // with up
                 // to 5 degree error in accuracy
                 controller
-                        .addParticipant(new AlienBullet((int) this.getX(), (int) this.getY(),
+                        .addParticipant(AlienBullet.create((int) this.getX(), (int) this.getY(),
                                 Math.toDegrees(Math.atan2(controller.getShip().getY() - this.getY(),
-                                        controller.getShip().getX() - this.getX())) + RANDOM.nextInt(11) - 5,
+                                        controller.getShip().getX() - this.getX()))
+                                        + controller.getRandom().nextInt(11) - 5,
                                 controller));
-                new ParticipantCountdownTimer(this, "fire", 1500); // sets timer to activate fireAlienBullet in
-                                                                   // countdownComplete()
+                fireTimer.restart(1500); // sets timer to activate fireAlienBullet in countdownComplete()
             }
             else if (size == 1)
             {
-                controller.addParticipant(new AlienBullet((int) this.getX(), (int) this.getY(), // creates an alien
+                controller.addParticipant(AlienBullet.create((int) this.getX(), (int) this.getY(), // creates an alien
                                                                                                 // bullet
                                                                                                 // at the alien ships x
                                                                                                 // and
                                                                                                 // y coordinates, firing
                                                                                                 // in
                                                                                                 // random directions
-                        2 * Math.PI * RANDOM.nextDouble(), controller));
-                new ParticipantCountdownTimer(this, "fire", 1500); // sets timer to activate fireAlienBullet in
-                                                                   // countdownComplete()
+                        2 * Math.PI * controller.getRandom().nextDouble(), controller));
+                fireTimer.restart(1500); // sets timer to activate fireAlienBullet in countdownComplete()
             }
         }
     }
@@ -3,9 +3,11 @@ package asteroids.participants;
 import static asteroids.game.Constants.*;
 import java.awt.Shape;
 import java.awt.geom.*;
+import java.util.Random;
 import asteroids.destroyers.AlienShipDestroyer;
 import asteroids.destroyers.AsteroidDestroyer;
 import asteroids.destroyers.ShipDestroyer;
+import asteroids.game.CollisionPolygon;
 import asteroids.game.Controller;
 import asteroids.game.Participant;
 
@@ -14,9 +16,30 @@ import asteroids.game.Participant;
  */
 public class Asteroid extends Participant implements ShipDestroyer, AlienShipDestroyer
 {
+    /** The outline of each variety (first index) and size (second index) of asteroid, shared by all asteroids */
+    private static final Shape[][] OUTLINES = new Shape[4][3];
+
+    /** OUTLINES flattened for detecting collisions */
+    private static final CollisionPolygon[][] POLYGONS = new CollisionPolygon[4][3];
+
+    static
+    {
+        for (int variety = 0; variety < OUTLINES.length; variety++)
+        {
+            for (int size = 0; size < OUTLINES[variety].length; size++)
+            {
+                OUTLINES[variety][size] = createAsteroidOutline(variety, size);
+                POLYGONS[variety][size] = new CollisionPolygon(OUTLINES[variety][size]);
+            }
+        }
+    }
+
     /** The size of the asteroid (0 = small, 1 = medium, 2 = large) */
     private int size;
 
+    /** Which of the four shapes the asteroid has (0 through 3) */
+    private int variety;
+
     /** The outline of the asteroid */
     private Shape outline;
 
@@ -31,6 +54,29 @@ public class Asteroid extends Participant implements ShipDestroyer, AlienShipDes
      * random direction.
      */
     public Asteroid (int variety, int size, double x, double y, Controller controller)
+    {
+        launch(variety, size, x, y, controller);
+    }
+
+    /**
+     * Returns an asteroid like the one the constructor makes, reusing an expired one from the controller's game if
+     * there is one.
+     */
+    public static Asteroid create (int variety, int size, double x, double y, Controller controller)
+    {
+        Asteroid asteroid = controller.reuse(Asteroid.class);
+        if (asteroid == null)
+        {
+            return new Asteroid(variety, size, x, y, controller);
+        }
+        asteroid.launch(variety, size, x, y, controller);
+        return asteroid;
+    }
+
+    /**
+     * Sets up a new or reused asteroid as the constructor describes.
+     */
+    private void launch (int variety, int size, double x, double y, Controller controller)
     {
         // Make sure size and variety are valid
         if (size < 0 || size > 2)
@@ -42,6 +88,7 @@ public class Asteroid extends Participant implements ShipDestroyer, AlienShipDes
             throw new IllegalArgumentException();
         }
 
+        Random random = Controller.randomOf(controller);
         int speed = 0;
         
         if (size == 2)
@@ -50,20 +97,21 @@ public class Asteroid extends Participant implements ShipDestroyer, AlienShipDes
         }
         else if (size == 1)
         {
-            speed = RANDOM.nextInt(2) + MAXIMUM_LARGE_ASTEROID_SPEED;
+            speed = random.nextInt(2) + MAXIMUM_LARGE_ASTEROID_SPEED;
         }
         else if (size == 0)
         {
-            speed = RANDOM.nextInt(5) + MAXIMUM_LARGE_ASTEROID_SPEED;
+            speed = random.nextInt(5) + MAXIMUM_LARGE_ASTEROID_SPEED;
         }
         
         // Create the asteroid
         this.controller = controller;
         this.size = size;
+        this.variety = variety;
         setPosition(x, y);
-        setVelocity(speed, RANDOM.nextDouble() * 2 * Math.PI);
-        setRotation(2 * Math.PI * RANDOM.nextDouble());
-        createAsteroidOutline(variety, size);
+        setVelocity(speed, random.nextDouble() * 2 * Math.PI);
+        setRotation(2 * Math.PI * random.nextDouble());
+        outline = OUTLINES[variety][size];
     }
 
     @Override
@@ -72,10 +120,16 @@ public class Asteroid extends Participant implements ShipDestroyer, AlienShipDes
         return outline;
     }
 
+    @Override
+    protected CollisionPolygon getPolygon (Shape outline)
+    {
+        return (outline == OUTLINES[variety][size]) ? POLYGONS[variety][size] : super.getPolygon(outline);
+    }
+
     /**
-     * Creates the outline of the asteroid based on its variety and size.
+     * Creates the outline of an asteroid of the given variety and size.
      */
-    private void createAsteroidOutline (int variety, int size)
+    private static Shape createAsteroidOutline (int variety, int size)
     {
         // This will contain the outline
         Path2D.Double poly = new Path2D.Double();
@@ -140,8 +194,16 @@ public class Asteroid extends Participant implements ShipDestroyer, AlienShipDes
         double scale = ASTEROID_SCALE[size];
         poly.transform(AffineTransform.getScaleInstance(scale, scale));
 
-        // Save the outline
-        outline = poly;
+        return poly;
+    }
+
+    /**
+     * Asteroids are split and destroyed constantly, and nothing refers to one once it has expired, so they are reused.
+     */
+    @Override
+    protected boolean isReusable ()
+    {
+        return true;
     }
 
     /**
@@ -152,6 +214,23 @@ public class Asteroid extends Participant implements ShipDestroyer, AlienShipDes
         return size;
     }
 
+    /**
+     * Returns the variety of the asteroid
+     */
+    public int getVariety ()
+    {
+        return variety;
+    }
+
+    /**
+     * Asteroids are only destroyed by AsteroidDestroyers
+     */
+    @Override
+    protected Class<?> getCollidesWith ()
+    {
+        return AsteroidDestroyer.class;
+    }
+
     /**
      * When an Asteroid collides with an AsteroidDestroyer, it expires.
      */
@@ -167,7 +246,7 @@ public class Asteroid extends Participant implements ShipDestroyer, AlienShipDes
             // Spawn 4 transient dust particles
             for (int i = 0; i < 4; ++i)
             {
-                this.controller.addParticipant(new Debris(this.getX(), this.getY(), 1));
+                this.controller.addParticipant(Debris.create(this.getX(), this.getY(), 1, controller));
             }
         }
     }
@@ -4,6 +4,7 @@ import static asteroids.game.Constants.*;
 import java.awt.Shape;
 import java.awt.geom.*;
 import asteroids.destroyers.*;
+import asteroids.game.CollisionPolygon;
 import asteroids.game.Controller;
 import asteroids.game.Participant;
 import asteroids.game.ParticipantCountdownTimer;
@@ -13,11 +14,17 @@ import asteroids.game.ParticipantCountdownTimer;
  */
 public class Bullet extends Participant implements AsteroidDestroyer, AlienShipDestroyer
 {
-    /** The outline of the bullet */
-    private Shape outline;
-    
+    /** The outline of every bullet, of whatever kind */
+    static final Shape OUTLINE = createOutline();
+
+    /** OUTLINE flattened for detecting collisions */
+    static final CollisionPolygon POLYGON = new CollisionPolygon(OUTLINE);
+
     /** Game controller */
     private Controller controller;
+
+    /** Calls countdownComplete when the bullet has been flying for BULLET_DURATION milliseconds */
+    private ParticipantCountdownTimer timer;
     
     /**
      * Constructs bullet at specified coordinates, headed in specified direction at BULLET_SPEED
@@ -29,27 +36,78 @@ public class Bullet extends Participant implements AsteroidDestroyer, AlienShipD
         setPosition(x, y);
         setVelocity(BULLET_SPEED, direction);
         
+        timer = new ParticipantCountdownTimer(this, this, BULLET_DURATION);
+    }
+
+    /**
+     * Returns a bullet like the one the constructor makes, reusing an expired one from the controller's game if there
+     * is one.
+     */
+    public static Bullet create (int x, int y, double direction, Controller controller)
+    {
+        Bullet bullet = controller.reuse(Bullet.class);
+        if (bullet == null)
+        {
+            return new Bullet(x, y, direction, controller);
+        }
+        bullet.relaunch(x, y, direction, controller);
+        return bullet;
+    }
+
+    /**
+     * Sets up a reused bullet as the constructor does.
+     */
+    void relaunch (int x, int y, double direction, Controller controller)
+    {
+        this.controller = controller;
+        setPosition(x, y);
+        setVelocity(BULLET_SPEED, direction);
+        timer.restart();
+    }
+
+    /**
+     * Returns the outline of a bullet.
+     */
+    private static Shape createOutline ()
+    {
         Path2D.Double poly = new Path2D.Double();
         poly.moveTo(0.5, 0);
         poly.lineTo(-0.5, -0.5);
         poly.lineTo(0, 0);
         poly.lineTo(-0.5, 0.5);
         poly.closePath();
-        outline = poly;
-        
-        new ParticipantCountdownTimer(this, this, BULLET_DURATION);
+        return poly;
     }
     
     @Override
     protected Shape getOutline ()
     {
-        return outline;
+        return OUTLINE;
     }
-    
+
+    @Override
+    protected CollisionPolygon getPolygon (Shape outline)
+    {
+        return (outline == OUTLINE) ? POLYGON : super.getPolygon(outline);
+    }
+
+    /**
+     * Bullets are created and expire constantly, and nothing refers to one once it has expired, so they are reused.
+     */
+    @Override
+    protected boolean isReusable ()
+    {
+        return true;
+    }
+
+    /**
+     * Bullets move BULLET_SPEED pixels a frame and are about a pixel wide, so they are swept to keep them from passing
+     * through small asteroids between frames.
+     */
     @Override
-    public void move ()
+    protected boolean isSwept ()
     {
-        super.move();
+        return true;
     }
     
     /**
@@ -63,6 +121,15 @@ public class Bullet extends Participant implements AsteroidDestroyer, AlienShipD
         Participant.expire(this);
     }
     
+    /**
+     * Bullets only expire when they hit ShipDestroyers
+     */
+    @Override
+    protected Class<?> getCollidesWith ()
+    {
+        return ShipDestroyer.class;
+    }
+
     /**
      * When a Bullet collides with a ShipDestroyer, it expires
      */
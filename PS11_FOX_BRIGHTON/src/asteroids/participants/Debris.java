@@ -1,33 +1,102 @@
 package asteroids.participants;
 
 import asteroids.game.ParticipantCountdownTimer;
+import asteroids.game.CollisionPolygon;
 import java.awt.geom.Path2D;
 import asteroids.game.Constants;
+import asteroids.game.Controller;
 import java.awt.Shape;
 import asteroids.game.Participant;
+import java.util.Random;
 
 public class Debris extends Participant
 {
+    /** shared outlines of the debris of each length below OUTLINES.length */
+    private static final Shape[] OUTLINES = new Shape[32];
+
+    /** OUTLINES flattened for detecting collisions */
+    private static final CollisionPolygon[] POLYGONS = new CollisionPolygon[OUTLINES.length];
+
+    static
+    {
+        for (int size = 0; size < OUTLINES.length; size++)
+        {
+            OUTLINES[size] = createOutline(size);
+            POLYGONS[size] = new CollisionPolygon(OUTLINES[size]);
+        }
+    }
+
     /** debris shape */
     private Shape debris;
 
+    /** length of the line */
+    private int size;
+
+    /** despawns the debris */
+    private ParticipantCountdownTimer timer;
+
     /** creates a line of 'size' units long and gives it a random rotation, velocity, and speed at location (x, y) */
     public Debris (double x, double y, int size)
     {
-        // create line centered on (x, y)
-        Path2D.Double debrisPiece = new Path2D.Double();
-        debrisPiece.moveTo(0, -size / 2.0);
-        debrisPiece.lineTo(0, size / 2.0);
+        this(x, y, size, Constants.RANDOM);
+    }
+
+    /** same as above, but with the randomness taken from 'random' (normally the game's, so that it can be replayed) */
+    public Debris (double x, double y, int size, Random random)
+    {
+        scatter(x, y, size, random);
+
+        // despawns debris after 2 seconds
+        timer = new ParticipantCountdownTimer(this, this, 2000);
+    }
+
+    /**
+     * same as above with the game's randomness, but reuses expired debris from the controller's game if there is any
+     */
+    public static Debris create (double x, double y, int size, Controller controller)
+    {
+        Debris piece = controller.reuse(Debris.class);
+        if (piece == null)
+        {
+            return new Debris(x, y, size, controller.getRandom());
+        }
+        piece.scatter(x, y, size, controller.getRandom());
+        piece.timer.restart();
+        return piece;
+    }
+
+    /**
+     * gives the debris its length, position, and random rotation, velocity, and speed. Debris never collides with
+     * anything, so it is made inert to keep it out of the collision checks.
+     */
+    private void scatter (double x, double y, int size, Random random)
+    {
+        setInert(true);
+
+        // line centered on (x, y)
+        this.debris = (size >= 0 && size < OUTLINES.length) ? OUTLINES[size] : createOutline(size);
 
         // random rotation, velocity, and speed
-        setRotation(Math.PI * 2.0 * Constants.RANDOM.nextDouble());
+        setRotation(Math.PI * 2.0 * random.nextDouble());
         this.setPosition(x, y);
-        this.setVelocity(2 * Constants.RANDOM.nextDouble(), Math.PI * 2.0 * Constants.RANDOM.nextDouble());
+        this.setVelocity(2 * random.nextDouble(), Math.PI * 2.0 * random.nextDouble());
 
-        this.debris = debrisPiece;
+        this.size = size;
+    }
 
-        // despawns debris after 2 seconds
-        new ParticipantCountdownTimer(this, this, 2000);
+    /** creates a vertical line 'size' units long centered on (0, 0) */
+    private static Shape createOutline (int size)
+    {
+        Path2D.Double debrisPiece = new Path2D.Double();
+        debrisPiece.moveTo(0, -size / 2.0);
+        debrisPiece.lineTo(0, size / 2.0);
+        return debrisPiece;
+    }
+
+    /** returns the length of the line */
+    public int getSize ()
+    {
+        return size;
     }
 
     @Override
@@ -36,14 +105,37 @@ public class Debris extends Participant
         return this.debris;
     }
 
+    @Override
+    protected CollisionPolygon getPolygon (Shape outline)
+    {
+        return (size >= 0 && size < OUTLINES.length && outline == OUTLINES[size]) ? POLYGONS[size]
+                : super.getPolygon(outline);
+    }
+
+    /** debris is short-lived and nothing refers to it, so it is reused */
+    @Override
+    protected boolean isReusable ()
+    {
+        return true;
+    }
+
     @Override
     public void countdownComplete (final Object payload)
     {
         Participant.expire(this);
     }
 
+    /**
+     * Debris ignores every collision
+     */
+    @Override
+    protected Class<?> getCollidesWith ()
+    {
+        return null;
+    }
+
     @Override
     public void collidedWith (final Participant p)
     {
     }
-}
\ No newline at end of file
+}
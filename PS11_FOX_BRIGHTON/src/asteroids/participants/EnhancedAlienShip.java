@@ -3,8 +3,9 @@ package asteroids.participants;
 import static asteroids.game.Constants.*;
 import java.awt.Shape;
 import java.awt.geom.*;
+import java.nio.ByteBuffer;
 import asteroids.destroyers.*;
-import asteroids.game.Constants;
+import asteroids.game.CollisionPolygon;
 import asteroids.game.Controller;
 import asteroids.game.Participant;
 import asteroids.game.ParticipantCountdownTimer;
@@ -14,6 +15,21 @@ import asteroids.game.ParticipantCountdownTimer;
  */
 public class EnhancedAlienShip extends AlienShip implements AsteroidDestroyer, ShipDestroyer
 {
+    /** The outline of each size of enhanced alien ship, shared by all enhanced alien ships */
+    private static final Shape[] OUTLINES = new Shape[ALIENSHIP_SCALE.length];
+
+    /** OUTLINES flattened for detecting collisions */
+    private static final CollisionPolygon[] POLYGONS = new CollisionPolygon[OUTLINES.length];
+
+    static
+    {
+        for (int size = 0; size < OUTLINES.length; size++)
+        {
+            OUTLINES[size] = createOutline(size);
+            POLYGONS[size] = new CollisionPolygon(OUTLINES[size]);
+        }
+    }
+
     /** The outline of the alien ship */
     private Shape outline;
 
@@ -29,6 +45,12 @@ public class EnhancedAlienShip extends AlienShip implements AsteroidDestroyer, S
     
     private boolean speedUp;
 
+    /** Timer that fires a bullet, kept so that it can be restarted rather than replaced */
+    private ParticipantCountdownTimer enhancedFireTimer;
+
+    /** Timer that is started after each change of direction, or null until the first one */
+    private ParticipantCountdownTimer directionTimer;
+
     /**
      * Spawns an alien ship outside of the screen of the given size
      */
@@ -44,6 +66,22 @@ public class EnhancedAlienShip extends AlienShip implements AsteroidDestroyer, S
         followShip = false;
         speedUp = false;
 
+        this.outline = OUTLINES[size];
+
+        new ParticipantCountdownTimer(this, "enhancedDirectionChange", 1500); // timer to set direction change constant to 1
+        new ParticipantCountdownTimer(this, "followShip", 6000);
+        new ParticipantCountdownTimer(this, "speedUp", 12000);
+        enhancedFireTimer = new ParticipantCountdownTimer(this, "enhancedFire", 1250);
+
+        this.setPosition(0, 0); // spawns alien ship off screen
+        this.setVelocity(2, Controller.randomOf(controller).nextInt(2) * Math.PI); // randomly sets direction
+    }
+
+    /**
+     * Creates the outline of an enhanced alien ship of the given size
+     */
+    private static Shape createOutline (int size)
+    {
         final Path2D.Double poly = new Path2D.Double();
         // top section
         poly.moveTo(-10.0, -0.0);
@@ -90,18 +128,10 @@ public class EnhancedAlienShip extends AlienShip implements AsteroidDestroyer, S
         poly.lineTo(4.0, -4.0);
         poly.lineTo(4.0, 0.0);
         poly.closePath();
-        this.outline = poly;
-
-        new ParticipantCountdownTimer(this, "enhancedDirectionChange", 1500); // timer to set direction change constant to 1
-        new ParticipantCountdownTimer(this, "followShip", 6000);
-        new ParticipantCountdownTimer(this, "speedUp", 12000);
-        new ParticipantCountdownTimer(this, "enhancedFire", 1250);
 
-        double scale = ALIENSHIP_SCALE[this.size]; // determines scale based on ship size
+        double scale = ALIENSHIP_SCALE[size]; // determines scale based on ship size
         poly.transform(AffineTransform.getScaleInstance(scale, scale));
-
-        this.setPosition(0, 0); // spawns alien ship off screen
-        this.setVelocity(2, Constants.RANDOM.nextInt(2) * Math.PI); // randomly sets direction
+        return poly;
     }
 
     /**
@@ -133,7 +163,7 @@ public class EnhancedAlienShip extends AlienShip implements AsteroidDestroyer, S
     }
 
     /**
-     * 
+     * Speeds up when it is time to
      */
     @Override
     public void move ()
@@ -144,6 +174,16 @@ public class EnhancedAlienShip extends AlienShip implements AsteroidDestroyer, S
             this.setSpeed(this.getSpeed() * 2);
             speedUp = false;
         }
+    }
+
+    /**
+     * Turns toward the ship or changes direction, which looks at the ship and uses the game's random numbers, so it is
+     * done after every participant has moved
+     */
+    @Override
+    protected void afterMove ()
+    {
+        super.afterMove();
         if (followShip)
         {
             if (controller.getShip() != null)
@@ -158,13 +198,20 @@ public class EnhancedAlienShip extends AlienShip implements AsteroidDestroyer, S
 
             if (Math.cos(this.getDirection()) > 0.0)
             {
-                this.setDirection(Constants.RANDOM.nextInt(3) - 1);
+                this.setDirection(controller.getRandom().nextInt(3) - 1);
+            }
+            else
+            {
+                this.setDirection(Math.PI + controller.getRandom().nextInt(3) - 1.0);
+            }
+            if (directionTimer == null)
+            {
+                directionTimer = new ParticipantCountdownTimer(this, "directionChange", 1500);
             }
             else
             {
-                this.setDirection(Math.PI + Constants.RANDOM.nextInt(3) - 1.0);
+                directionTimer.restart(1500);
             }
-            new ParticipantCountdownTimer(this, "directionChange", 1500);
         }
     }
 
@@ -174,6 +221,29 @@ public class EnhancedAlienShip extends AlienShip implements AsteroidDestroyer, S
         return outline;
     }
 
+    @Override
+    protected CollisionPolygon getPolygon (Shape outline)
+    {
+        return (outline == OUTLINES[size]) ? POLYGONS[size] : super.getPolygon(outline);
+    }
+
+    @Override
+    protected void writeState (ByteBuffer out)
+    {
+        super.writeState(out);
+        out.put((byte) ((changeDirection ? 1 : 0) | (followShip ? 2 : 0) | (speedUp ? 4 : 0)));
+    }
+
+    @Override
+    protected void readState (ByteBuffer in)
+    {
+        super.readState(in);
+        int flags = in.get();
+        changeDirection = (flags & 1) != 0;
+        followShip = (flags & 2) != 0;
+        speedUp = (flags & 4) != 0;
+    }
+
     @Override
     public void countdownComplete (Object payload)
     {
@@ -204,12 +274,12 @@ public class EnhancedAlienShip extends AlienShip implements AsteroidDestroyer, S
             controller.alienShipDestroyed(this);
 
             // Spawn debris from destroyed ship
-            this.controller.addParticipant(new Debris(this.getX(), this.getY(), 17));
-            this.controller.addParticipant(new Debris(this.getX(), this.getY(), 17));
-            this.controller.addParticipant(new Debris(this.getX(), this.getY(), 12));
-            this.controller.addParticipant(new Debris(this.getX(), this.getY(), 12));
-            this.controller.addParticipant(new Debris(this.getX(), this.getY(), 6));
-            this.controller.addParticipant(new Debris(this.getX(), this.getY(), 6));
+            this.controller.addParticipant(Debris.create(this.getX(), this.getY(), 17, controller));
+            this.controller.addParticipant(Debris.create(this.getX(), this.getY(), 17, controller));
+            this.controller.addParticipant(Debris.create(this.getX(), this.getY(), 12, controller));
+            this.controller.addParticipant(Debris.create(this.getX(), this.getY(), 12, controller));
+            this.controller.addParticipant(Debris.create(this.getX(), this.getY(), 6, controller));
+            this.controller.addParticipant(Debris.create(this.getX(), this.getY(), 6, controller));
         }
     }
 
@@ -217,18 +287,18 @@ public class EnhancedAlienShip extends AlienShip implements AsteroidDestroyer, S
     {
         if (controller.getShip() != null && size == 0)
         {
-            AlienBullet alienBullet = new AlienBullet((int) this.getX(), (int) this.getY(),
+            AlienBullet alienBullet = AlienBullet.create((int) this.getX(), (int) this.getY(),
                     Math.atan2(controller.getShip().getY() - this.getY(), controller.getShip().getX() - this.getX()),
                     controller);
             this.controller.addParticipant(alienBullet);
-            new ParticipantCountdownTimer(this, "enhancedFire", 1500);
+            enhancedFireTimer.restart(1500);
         }
         else if (controller.getShip() != null && size == 1)
         {
-            AlienBullet alienBullet = new AlienBullet((int) this.getX(), (int) this.getY(),
-                    2 * Math.PI * RANDOM.nextDouble(), controller);
+            AlienBullet alienBullet = AlienBullet.create((int) this.getX(), (int) this.getY(),
+                    2 * Math.PI * controller.getRandom().nextDouble(), controller);
             this.controller.addParticipant(alienBullet);
-            new ParticipantCountdownTimer(this, "enhancedFire", 1500);
+            enhancedFireTimer.restart(1500);
         }
     }
 }
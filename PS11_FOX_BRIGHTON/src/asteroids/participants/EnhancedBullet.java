@@ -18,6 +18,21 @@ public class EnhancedBullet extends Bullet implements AsteroidDestroyer, AlienSh
         super(x, y, direction, controller);
     }
 
+    /**
+     * Returns a bullet like the one the constructor makes, reusing an expired one from the controller's game if there
+     * is one.
+     */
+    public static EnhancedBullet create (int x, int y, double direction, Controller controller)
+    {
+        EnhancedBullet bullet = controller.reuse(EnhancedBullet.class);
+        if (bullet == null)
+        {
+            return new EnhancedBullet(x, y, direction, controller);
+        }
+        bullet.relaunch(x, y, direction, controller);
+        return bullet;
+    }
+
     /**
      * Expires bullet after BULLET_DURATION milliseconds
      */
@@ -57,16 +57,34 @@ public class EnhancedForceField extends Participant implements AsteroidDestroyer
         return outline;
     }
 
-    /** Force Field will follow the ship */
+    /** Force Field only moves while there is a ship to follow */
     public void move ()
     {
         if (controller.getShip() != null)
         {
             super.move();
+        }
+    }
+
+    /** Force Field will follow the ship, once the ship has moved */
+    @Override
+    protected void afterMove ()
+    {
+        if (controller.getShip() != null)
+        {
             this.setPosition(controller.getShip().getX(), controller.getShip().getY());
         }
     }
 
+    /**
+     * Force Field ignores every collision
+     */
+    @Override
+    protected Class<?> getCollidesWith ()
+    {
+        return null;
+    }
+
     /** Force Field is invincible */
     @Override
     public void collidedWith (Participant p)
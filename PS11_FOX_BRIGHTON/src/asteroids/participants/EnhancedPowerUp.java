@@ -2,6 +2,7 @@ package asteroids.participants;
 
 import java.awt.Shape;
 import java.awt.geom.*;
+import asteroids.game.CollisionPolygon;
 import asteroids.game.Controller;
 import asteroids.game.Participant;
 import asteroids.game.ParticipantCountdownTimer;
@@ -11,6 +12,21 @@ import asteroids.game.ParticipantCountdownTimer;
  */
 public class EnhancedPowerUp extends Participant
 {
+    /** The outline of each type of PowerUp, shared by all PowerUps */
+    private static final Shape[] OUTLINES = new Shape[3];
+
+    /** OUTLINES flattened for detecting collisions */
+    private static final CollisionPolygon[] POLYGONS = new CollisionPolygon[OUTLINES.length];
+
+    static
+    {
+        for (int type = 0; type < OUTLINES.length; type++)
+        {
+            OUTLINES[type] = createPowerUpOutline(type);
+            POLYGONS[type] = new CollisionPolygon(OUTLINES[type]);
+        }
+    }
+
     /** The type of the PowerUp (0 = bulletTime, 1 = forceField, 2 = doubleScore) */
     private int type;
 
@@ -30,7 +46,7 @@ public class EnhancedPowerUp extends Participant
         this.controller = controller;
         this.type = type;
         setPosition(x, y);
-        createPowerUpOutline(type);
+        outline = (type >= 0 && type < OUTLINES.length) ? OUTLINES[type] : createPowerUpOutline(type);
 
         new ParticipantCountdownTimer(this, this, 5000);
     }
@@ -41,15 +57,22 @@ public class EnhancedPowerUp extends Participant
         return outline;
     }
 
+    @Override
+    protected CollisionPolygon getPolygon (Shape outline)
+    {
+        return (type >= 0 && type < OUTLINES.length && outline == OUTLINES[type]) ? POLYGONS[type]
+                : super.getPolygon(outline);
+    }
+
     public int getPowerUpType ()
     {
         return type;
     }
 
     /**
-     * Creates the outline of the powerup based on its type
+     * Creates the outline of a powerup of the given type
      */
-    private void createPowerUpOutline (int type)
+    private static Shape createPowerUpOutline (int type)
     {
         // This will contain the outline
         Path2D.Double poly = new Path2D.Double();
@@ -118,8 +141,7 @@ public class EnhancedPowerUp extends Participant
             poly.closePath();
         }
 
-        // Save the outline
-        outline = poly;
+        return poly;
     }
 
     @Override
@@ -128,6 +150,15 @@ public class EnhancedPowerUp extends Participant
         Participant.expire(this);
     }
 
+    /**
+     * Power ups are only collected by Ships
+     */
+    @Override
+    protected Class<?> getCollidesWith ()
+    {
+        return Ship.class;
+    }
+
     /**
      * When a ship collides with a powerup, it expires and applies the buff.
      */
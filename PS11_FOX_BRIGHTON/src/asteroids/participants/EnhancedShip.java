@@ -3,6 +3,7 @@ package asteroids.participants;
 import static asteroids.game.Constants.*;
 import java.awt.Shape;
 import java.awt.geom.*;
+import java.nio.ByteBuffer;
 import asteroids.destroyers.*;
 import asteroids.game.Controller;
 import asteroids.game.Participant;
@@ -13,6 +14,9 @@ import asteroids.game.ParticipantCountdownTimer;
  */
 public class EnhancedShip extends Ship implements AsteroidDestroyer, AlienShipDestroyer
 {
+    /** The ship with each size of flame (0 = none, 1 = small, 2 = large), all with the same hull */
+    private static final Shape[] FRAMES = { HULL, createSmallFlame(), createLargeFlame() };
+
     /** The outline of the ship */
     private Shape outline;
 
@@ -22,6 +26,9 @@ public class EnhancedShip extends Ship implements AsteroidDestroyer, AlienShipDe
     /** boolean to control ship flame */
     public boolean flame;
 
+    /** size of the flame on the outline (0 = none, 1 = small, 2 = large) */
+    private int flameSize;
+
     /**
      * Constructs a ship at the specified coordinates that is pointed in the given direction.
      */
@@ -31,15 +38,7 @@ public class EnhancedShip extends Ship implements AsteroidDestroyer, AlienShipDe
         this.controller = controller;
         setPosition(x, y);
         setRotation(direction);
-
-        Path2D.Double poly = new Path2D.Double();
-        poly.moveTo(21, 0);
-        poly.lineTo(-21, 12);
-        poly.lineTo(-14, 10);
-        poly.lineTo(-14, -10);
-        poly.lineTo(-21, -12);
-        poly.closePath();
-        outline = poly;
+        outline = FRAMES[0];
     }
 
     /**
@@ -120,20 +119,34 @@ public class EnhancedShip extends Ship implements AsteroidDestroyer, AlienShipDe
      */
     public void makeNoFlame ()
     {
-        Path2D.Double poly = new Path2D.Double();
-        poly.moveTo(21, 0);
-        poly.lineTo(-21, 12);
-        poly.lineTo(-14, 10);
-        poly.lineTo(-14, -10);
-        poly.lineTo(-21, -12);
-        poly.closePath();
-        outline = poly;
+        outline = FRAMES[0];
+        flameSize = 0;
     }
 
     /**
      * Creates small flame on back of ship
      */
     private void makeSmallFlame ()
+    {
+        outline = FRAMES[1];
+        flame = true;
+        flameSize = 1;
+    }
+
+    /**
+     * Creates large flame on back of ship
+     */
+    private void makeFlame ()
+    {
+        outline = FRAMES[2];
+        flame = false;
+        flameSize = 2;
+    }
+
+    /**
+     * Creates the outline of a ship with a small flame on its back.
+     */
+    private static Shape createSmallFlame ()
     {
         Path2D.Double poly = new Path2D.Double();
         poly.moveTo(21, 0);
@@ -151,14 +164,13 @@ public class EnhancedShip extends Ship implements AsteroidDestroyer, AlienShipDe
         poly.lineTo(-14, -10);
         poly.lineTo(-21, -12);
         poly.closePath();
-        outline = poly;
-        flame = true;
+        return poly;
     }
 
     /**
-     * Creates large flame on back of ship
+     * Creates the outline of a ship with a large flame on its back.
      */
-    private void makeFlame ()
+    private static Shape createLargeFlame ()
     {
         Path2D.Double poly = new Path2D.Double();
         poly.moveTo(21, 0);
@@ -176,8 +188,34 @@ public class EnhancedShip extends Ship implements AsteroidDestroyer, AlienShipDe
         poly.lineTo(-14, -10);
         poly.lineTo(-21, -12);
         poly.closePath();
-        outline = poly;
-        flame = false;
+        return poly;
+    }
+
+    @Override
+    protected void writeState (ByteBuffer out)
+    {
+        super.writeState(out);
+        out.put((byte) ((flame ? 1 : 0) | (flameSize << 1)));
+    }
+
+    @Override
+    protected void readState (ByteBuffer in)
+    {
+        super.readState(in);
+        int flags = in.get();
+        if ((flags >> 1) == 2)
+        {
+            makeFlame();
+        }
+        else if ((flags >> 1) == 1)
+        {
+            makeSmallFlame();
+        }
+        else
+        {
+            makeNoFlame();
+        }
+        flame = (flags & 1) != 0;
     }
 
     /**
@@ -195,9 +233,9 @@ public class EnhancedShip extends Ship implements AsteroidDestroyer, AlienShipDe
             controller.shipDestroyed();
             
             // Spawn debris from destroyed ship
-            this.controller.addParticipant(new Debris(this.getX(), this.getY(), 21));
-            this.controller.addParticipant(new Debris(this.getX(), this.getY(), 21));
-            this.controller.addParticipant(new Debris(this.getX(), this.getY(), 8));
+            this.controller.addParticipant(Debris.create(this.getX(), this.getY(), 21, controller));
+            this.controller.addParticipant(Debris.create(this.getX(), this.getY(), 21, controller));
+            this.controller.addParticipant(Debris.create(this.getX(), this.getY(), 8, controller));
         }
     }
 
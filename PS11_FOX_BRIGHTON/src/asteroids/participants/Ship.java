@@ -3,7 +3,9 @@ package asteroids.participants;
 import static asteroids.game.Constants.*;
 import java.awt.Shape;
 import java.awt.geom.*;
+import java.nio.ByteBuffer;
 import asteroids.destroyers.*;
+import asteroids.game.CollisionPolygon;
 import asteroids.game.Controller;
 import asteroids.game.Participant;
 import asteroids.game.ParticipantCountdownTimer;
@@ -13,6 +15,15 @@ import asteroids.game.ParticipantCountdownTimer;
  */
 public class Ship extends Participant implements AsteroidDestroyer, AlienShipDestroyer
 {
+    /** The ship without a flame, which is also the shape that collides with things */
+    static final Shape HULL = createHull();
+
+    /** HULL flattened for detecting collisions, whatever the flame is doing */
+    static final CollisionPolygon HULL_POLYGON = new CollisionPolygon(HULL);
+
+    /** The ship with its flame */
+    private static final Shape FLAME = createFlame();
+
     /** The outline of the ship */
     private Shape outline;
 
@@ -22,6 +33,9 @@ public class Ship extends Participant implements AsteroidDestroyer, AlienShipDes
     /** boolean to control ship flame */
     public boolean flame;
 
+    /** true if the outline has the flame on it */
+    private boolean flaming;
+
     /**
      * Constructs a ship at the specified coordinates that is pointed in the given direction.
      */
@@ -30,15 +44,40 @@ public class Ship extends Participant implements AsteroidDestroyer, AlienShipDes
         this.controller = controller;
         setPosition(x, y);
         setRotation(direction);
+        outline = HULL;
+    }
+
+    /**
+     * Creates the outline of a ship without a flame.
+     */
+    private static Shape createHull ()
+    {
+        Path2D.Double poly = new Path2D.Double();
+        poly.moveTo(21, 0);
+        poly.lineTo(-21, 12);
+        poly.lineTo(-14, 10);
+        poly.lineTo(-14, -10);
+        poly.lineTo(-21, -12);
+        poly.closePath();
+        return poly;
+    }
 
+    /**
+     * Creates the outline of a ship with a flame on its back.
+     */
+    private static Shape createFlame ()
+    {
         Path2D.Double poly = new Path2D.Double();
         poly.moveTo(21, 0);
         poly.lineTo(-21, 12);
         poly.lineTo(-14, 10);
+        poly.lineTo(-14, 6);
+        poly.lineTo(-21, 0);
+        poly.lineTo(-14, -6);
         poly.lineTo(-14, -10);
         poly.lineTo(-21, -12);
         poly.closePath();
-        outline = poly;
+        return poly;
     }
 
     /**
@@ -67,6 +106,16 @@ public class Ship extends Participant implements AsteroidDestroyer, AlienShipDes
         return outline;
     }
 
+    /**
+     * The flame is only for show, so the ship always collides as its hull, and switching the flame on and off changes
+     * neither the shape that collisions are checked against nor where the ship wraps around the edges of the screen.
+     */
+    @Override
+    protected CollisionPolygon getPolygon (Shape outline)
+    {
+        return HULL_POLYGON;
+    }
+
     /**
      * Customizes the base move method by imposing friction
      */
@@ -119,15 +168,9 @@ public class Ship extends Participant implements AsteroidDestroyer, AlienShipDes
      */
     public void makeNoFlame ()
     {
-        Path2D.Double poly = new Path2D.Double();
-        poly.moveTo(21, 0);
-        poly.lineTo(-21, 12);
-        poly.lineTo(-14, 10);
-        poly.lineTo(-14, -10);
-        poly.lineTo(-21, -12);
-        poly.closePath();
-        outline = poly;
+        outline = HULL;
         flame = true;
+        flaming = false;
     }
 
     /**
@@ -135,18 +178,41 @@ public class Ship extends Participant implements AsteroidDestroyer, AlienShipDes
      */
     private void makeFlame ()
     {
-        Path2D.Double poly = new Path2D.Double();
-        poly.moveTo(21, 0);
-        poly.lineTo(-21, 12);
-        poly.lineTo(-14, 10);
-        poly.lineTo(-14, 6);
-        poly.lineTo(-21, 0);
-        poly.lineTo(-14, -6);
-        poly.lineTo(-14, -10);
-        poly.lineTo(-21, -12);
-        poly.closePath();
-        outline = poly;
+        outline = FLAME;
         flame = false;
+        flaming = true;
+    }
+
+    @Override
+    protected void writeState (ByteBuffer out)
+    {
+        super.writeState(out);
+        out.put((byte) ((flame ? 1 : 0) | (flaming ? 2 : 0)));
+    }
+
+    @Override
+    protected void readState (ByteBuffer in)
+    {
+        super.readState(in);
+        int flags = in.get();
+        if ((flags & 2) != 0)
+        {
+            makeFlame();
+        }
+        else
+        {
+            makeNoFlame();
+        }
+        flame = (flags & 1) != 0;
+    }
+
+    /**
+     * Ships are only destroyed by ShipDestroyers
+     */
+    @Override
+    protected Class<?> getCollidesWith ()
+    {
+        return ShipDestroyer.class;
     }
 
     /**
@@ -164,9 +230,9 @@ public class Ship extends Participant implements AsteroidDestroyer, AlienShipDes
             controller.shipDestroyed();
 
             // Spawn debris from destroyed ship
-            this.controller.addParticipant(new Debris(this.getX(), this.getY(), 21));
-            this.controller.addParticipant(new Debris(this.getX(), this.getY(), 21));
-            this.controller.addParticipant(new Debris(this.getX(), this.getY(), 8));
+            this.controller.addParticipant(Debris.create(this.getX(), this.getY(), 21, controller));
+            this.controller.addParticipant(Debris.create(this.getX(), this.getY(), 21, controller));
+            this.controller.addParticipant(Debris.create(this.getX(), this.getY(), 8, controller));
         }
     }
 
@@ -0,0 +1,85 @@
+package asteroids.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import asteroids.game.Participant;
+import asteroids.game.ParticipantState;
+
+/**
+ * Measures ParticipantState's frames of a CollisionScene, with and without participants being added and removed.
+ * This is in the same package as CollisionScene so that it can use it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class FrameBenchmark
+{
+    /** Fraction of the participants that are replaced each frame by completeAddsAndRemoves() */
+    private static final double CHURN = 0.1;
+
+    /** Number of participants in the scene */
+    @Param({ "10", "100", "1000", "10000" })
+    public int participants;
+
+    /** The state that holds the scene */
+    private ParticipantState pstate;
+
+    /** The scene, which replaces the participants that are expired */
+    private CollisionScene scene;
+
+    /**
+     * Fills the state with a CollisionScene, seeded with the number of participants, and does the frame before the
+     * measurement.
+     */
+    @Setup
+    public void setUp ()
+    {
+        pstate = new ParticipantState();
+        scene = new CollisionScene(pstate, participants, participants);
+        pstate.moveParticipants();
+    }
+
+    /**
+     * Does a frame.
+     */
+    @Benchmark
+    public void moveParticipants ()
+    {
+        pstate.moveParticipants();
+    }
+
+    /**
+     * Expires a tenth of the participants, replaces them with new ones, and does a frame, so that
+     * completeAddsAndRemoves has work to do.
+     */
+    @Benchmark
+    public void completeAddsAndRemoves ()
+    {
+        int replaced = Math.max(1, (int) (participants * CHURN));
+        int expired = 0;
+        for (Participant p : pstate)
+        {
+            if (expired == replaced)
+            {
+                break;
+            }
+            Participant.expire(p);
+            scene.replace(p);
+            expired++;
+        }
+        pstate.moveParticipants();
+    }
+}
@@ -0,0 +1,82 @@
+package asteroids.benchmarks;
+
+import static asteroids.game.Constants.*;
+import static asteroids.game.Controller.*;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import asteroids.game.Controller;
+import asteroids.game.Screen;
+
+/**
+ * Measures Screen.paintComponent drawing a headless game into an offscreen image.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PaintBenchmark
+{
+    /** Number of frames played, firing and turning, before the screen is painted */
+    private static final int FRAMES = 100;
+
+    /** The screen that is painted */
+    private Screen screen;
+
+    /** Draws into the offscreen image */
+    private Graphics2D g;
+
+    /**
+     * Plays the first frames of a game and sets up the screen to show them.
+     */
+    @Setup
+    public void setUp ()
+    {
+        Controller controller = Controller.createHeadless(1, 1);
+        controller.startGame();
+        for (int frame = 0; frame < FRAMES; frame++)
+        {
+            controller.setInput(INPUT_FIRE | INPUT_LEFT);
+            controller.tick();
+        }
+        controller.takeSnapshot();
+        screen = new Screen(controller);
+        screen.setSize(SIZE, SIZE);
+        screen.setLegend("Asteroids");
+        screen.setLevel(controller.getLevel());
+        screen.setScore(controller.getScore());
+        screen.setLives(controller.getLives());
+        g = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB).createGraphics();
+    }
+
+    /**
+     * Releases the image's graphics context.
+     */
+    @TearDown
+    public void tearDown ()
+    {
+        g.dispose();
+    }
+
+    /**
+     * Paints the screen.
+     */
+    @Benchmark
+    public void paintComponent ()
+    {
+        screen.paintComponent(g);
+    }
+}
@@ -0,0 +1,90 @@
+package asteroids.benchmarks;
+
+import static asteroids.game.Constants.*;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import asteroids.game.Participant;
+import asteroids.participants.Asteroid;
+
+/**
+ * Measures the work that is done for each participant every frame: Participant.move(), creating an asteroid, and
+ * Participant.overlaps().
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class ParticipantBenchmark
+{
+    /** Number of asteroids crowded together for overlaps(), which must be a power of two */
+    private static final int CROWD = 64;
+
+    /** An asteroid that isn't part of a ParticipantState */
+    private Asteroid asteroid;
+
+    /** Medium asteroids crowded together so that the bounding boxes of most pairs overlap */
+    private Participant[] crowd;
+
+    /** Counts the operations, to vary the asteroids that are created and the pairs that are checked */
+    private int next;
+
+    /**
+     * Creates the asteroids.
+     */
+    @Setup
+    public void setUp ()
+    {
+        asteroid = new Asteroid(0, 2, SIZE / 2, SIZE / 2, null);
+        Random random = new Random(0);
+        crowd = new Participant[CROWD];
+        for (int i = 0; i < crowd.length; i++)
+        {
+            crowd[i] = new Asteroid(random.nextInt(4), 1, SIZE / 2 + 100 * random.nextDouble(),
+                    SIZE / 2 + 100 * random.nextDouble(), null);
+            crowd[i].move();
+        }
+    }
+
+    /**
+     * Moves a participant.
+     */
+    @Benchmark
+    public void move ()
+    {
+        asteroid.move();
+    }
+
+    /**
+     * Creates an asteroid and places its border for the first time, as happens whenever one splits.
+     */
+    @Benchmark
+    public Asteroid create ()
+    {
+        int i = next++;
+        Asteroid a = new Asteroid(i & 3, i % 3, SIZE / 2, SIZE / 2, null);
+        a.move();
+        return a;
+    }
+
+    /**
+     * Checks a pair of the crowded asteroids, whose outlines usually have to be compared.
+     */
+    @Benchmark
+    public boolean overlaps ()
+    {
+        int i = next++ & (CROWD - 1);
+        return crowd[i].overlaps(crowd[(7 * i + 1) & (CROWD - 1)]);
+    }
+}